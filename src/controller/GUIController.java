@@ -62,7 +62,7 @@ public class GUIController implements IGUIController, ActionListener {
             this.model.newProject(projectName, intXVal, intYVal);
           } catch (IllegalArgumentException ignored) {
           }
-          this.view.setImage(ImageUtil.createBuffImage(this.model.saveImage()));
+          this.showImage();
           this.view.addLayerNametoList(this.model.getCurProject().getLayerNames());
           view.refresh();
           break;
@@ -73,11 +73,11 @@ public class GUIController implements IGUIController, ActionListener {
             break;
           }
           try {
-            this.model.switchProject(model.openProject(ImageUtil.openProject(filename)));
+            this.model.switchProject(ImageUtil.loadProj(filename, this.model, true));
           } catch (IOException e) {
             this.displayMessage("File " + filename + " not found!");
           }
-          this.view.setImage(ImageUtil.createBuffImage(this.model.saveImage()));
+          this.showImage();
           this.view.addLayerNametoList(this.model.getCurProject().getLayerNames());
           this.displayMessage("The project was successfully loaded from " + filename + "\n");
           view.refresh();
@@ -87,7 +87,7 @@ public class GUIController implements IGUIController, ActionListener {
                   "and enter the name of your project.");
           filename = view.getDirectory();
           try {
-            ImageUtil.saveProj(filename, this.model.getCurProject());
+            ImageUtil.saveProj(filename, this.model.getCurProject(), true);
           } catch (IOException e) {
             this.displayMessage("File " + filename + " not found!");
           }
@@ -96,6 +96,7 @@ public class GUIController implements IGUIController, ActionListener {
         case "Add Layer Button":
           layerName = view.getString("Please enter the name of the layer");
           this.model.addLayer(layerName);
+          this.showImage();
           this.view.addLayerNametoList(this.model.getCurProject().getLayerNames());
           view.refresh();
           break;
@@ -113,7 +114,7 @@ public class GUIController implements IGUIController, ActionListener {
             this.displayMessage("Either the provided layer name already exists " +
                     "or the image file is valid");
           }
-          this.view.setImage(ImageUtil.createBuffImage(this.model.saveImage()));
+          this.showImage();
           view.refresh();
           break;
         case "Save Image Button":
@@ -121,7 +122,7 @@ public class GUIController implements IGUIController, ActionListener {
                   "and enter the name of your file.");
           filename = view.getDirectory();
           try {
-            ImageUtil.saveImg(this.model.saveImage(), filename);
+            ImageUtil.saveImg(this.model, filename);
           } catch (IOException | IllegalArgumentException e) {
             this.displayMessage("Either the provided layer name already exists " +
                     "or the inputted file path is valid");
@@ -203,11 +204,20 @@ public class GUIController implements IGUIController, ActionListener {
   private void applyFilter(FilterOptions filter, String message) {
     String layerName = this.view.getLayerSelected();
     this.model.setFilter(layerName, filter);
-    this.view.setImage(ImageUtil.createBuffImage(this.model.saveImage()));
+    this.showImage();
     this.displayMessage(message);
     view.refresh();
   }
 
+  /**
+   * Composes the image of the current project straight into the raster the view draws from,
+   * so only the regions that changed are composed and nothing is converted or copied.
+   * The view is redrawn with its next refresh.
+   */
+  private void showImage() {
+    this.model.renderImage(this.view.getDisplay(this.model.getHeight(), this.model.getWidth()));
+  }
+
   /**
    * Creates a display message on the GUI using the view.
    * @param message the message to be displayed
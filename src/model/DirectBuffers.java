@@ -0,0 +1,59 @@
+package model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * The DirectBuffers to be used to give back the memory of a direct or mapped buffer at once.
+ * The memory of a direct buffer is otherwise only freed, and a mapped buffer only unmapped,
+ * once the buffer is collected, which may be long after it was dropped.
+ * The buffer is freed with the cleaner of the JDK, which is found once, and is left to the
+ * garbage collector if the JDK has no such cleaner.
+ * A freed buffer must never be used again, so it is only freed once no thread can touch it.
+ * The DirectBuffers class allows to
+ * <li> free a direct or mapped buffer </li>
+ */
+final class DirectBuffers {
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> type = Class.forName("sun.misc.Unsafe");
+      Field field = type.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // the buffers are left to the garbage collector
+      unsafe = null;
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private DirectBuffers() {
+    // only static methods
+  }
+
+  /**
+   * Frees the memory of the given buffer, or unmaps it if it is mapped from a file.
+   * @param buffer the direct buffer, which is not a slice or a duplicate of another buffer.
+   * @return true if the buffer was freed, false if it is left to the garbage collector.
+   */
+  static boolean free(ByteBuffer buffer) {
+    if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+      return false;
+    }
+    try {
+      INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package model;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The FileRaster to be used to read an image in place from a region of a file.
+ * This class implements the interface IRaster.
+ * The packed ARGB values of the pixels inside the bounds of the image are stored row by row,
+ * big-endian, in the file, and the region is mapped into memory instead of being read,
+ * so a pixel is only read from the disk when it is first touched.
+ * The rows are mapped in bands so no mapping holds more than 2^26 pixels,
+ * and everything outside the bounds is transparent.
+ * The raster is read-only, and copying it reads its pixels into a raster of its own.
+ * The mappings stay valid after the file is closed and are unmapped once collected.
+ * Some systems, such as Windows, do not let a mapped file be replaced, so the raster may be
+ * detached from its file, which reads its pixels into memory and unmaps the file at once.
+ * The FileRaster class allows to
+ * <li> read the packed ARGB values of the image in the file </li>
+ * <li> get the bounds of the image </li>
+ * <li> get the file the image is read from </li>
+ * <li> detach the image from its file </li>
+ * <li> make a mutable copy of the image </li>
+ */
+public class FileRaster implements IRaster {
+  // the most pixels held by the mapping of one band of rows
+  private static final int BAND_PIXELS = 1 << 26;
+
+  private final int height;
+  private final int width;
+  private final Rectangle bounds;
+  private final int bandRows;
+  private final Path file;
+  // the mappings of the bands, or copies of them once the raster is detached from its file
+  private volatile IntBuffer[] bands;
+  // the mappings the bands are views of, which are unmapped once the raster is detached
+  private MappedByteBuffer[] mappings;
+
+  /**
+   * Constructor for a FileRaster.
+   * Creates a {@code FileRaster} which reads the pixels inside the given bounds from the file.
+   * @param channel the channel of the file, which may be closed once the raster is made.
+   * @param file the path of the file.
+   * @param offset the offset in the file of the first pixel, which is a multiple of 4.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param bounds the bounds of the pixels stored in the file.
+   * @throws IllegalArgumentException if the given height or width is not positive,
+   *     if the bounds are not inside the raster, or if the file ends before the pixels do.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public FileRaster(FileChannel channel, Path file, long offset, int height, int width,
+          Rectangle bounds) throws IllegalArgumentException, IOException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    if (bounds.isEmpty() || bounds.x < 0 || bounds.y < 0 || bounds.x + bounds.width > width
+            || bounds.y + bounds.height > height) {
+      throw new IllegalArgumentException("The bounds are not inside the raster");
+    }
+    if (offset < 0 || offset + (long) bounds.width * bounds.height * Integer.BYTES
+            > channel.size()) {
+      throw new IllegalArgumentException("The file ends before the pixels of the raster");
+    }
+    this.height = height;
+    this.width = width;
+    this.bounds = new Rectangle(bounds);
+    this.bandRows = Math.max(1, BAND_PIXELS / bounds.width);
+    this.file = file;
+    MappedByteBuffer[] maps = new MappedByteBuffer[(bounds.height + bandRows - 1) / bandRows];
+    IntBuffer[] mapped = new IntBuffer[maps.length];
+    for (int b = 0; b < mapped.length; b++) {
+      int rows = Math.min(bandRows, bounds.height - b * bandRows);
+      long start = offset + (long) b * bandRows * bounds.width * Integer.BYTES;
+      maps[b] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+              (long) rows * bounds.width * Integer.BYTES);
+      mapped[b] = maps[b].asIntBuffer();
+    }
+    this.mappings = maps;
+    this.bands = mapped;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the bounds of the pixels stored in the file.
+   * @return the bounds, outside of which the raster is transparent.
+   */
+  public Rectangle getBounds() {
+    return new Rectangle(bounds);
+  }
+
+  /**
+   * Gets the file the pixels are read from.
+   * @return the path of the file.
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Tells if the pixels are still read from the file.
+   * @return true if the raster has not been detached from its file.
+   */
+  public boolean isMapped() {
+    return bands[0].isDirect();
+  }
+
+  /**
+   * Reads the pixels of the file into memory of the raster's own and unmaps the file,
+   * so the file may be replaced right away.
+   * Every layer sharing the raster reads the copy from then on, and the pixels do not change.
+   * The raster must not be read by another thread while it is detached, since a read of the
+   * old mappings after they are unmapped would touch memory that is no longer there.
+   */
+  public synchronized void detach() {
+    IntBuffer[] mapped = bands;
+    if (mappings == null) {
+      return;
+    }
+    IntBuffer[] copies = new IntBuffer[mapped.length];
+    for (int b = 0; b < mapped.length; b++) {
+      copies[b] = IntBuffer.allocate(mapped[b].capacity()).put(mapped[b].duplicate());
+    }
+    this.bands = copies;
+    for (MappedByteBuffer mapping : mappings) {
+      DirectBuffers.free(mapping);
+    }
+    this.mappings = null;
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    if (row < bounds.y || row >= bounds.y + bounds.height || col < bounds.x
+            || col >= bounds.x + bounds.width) {
+      return Raster.TRANSPARENT;
+    }
+    int r = row - bounds.y;
+    return bands[r / bandRows].get((r % bandRows) * bounds.width + col - bounds.x);
+  }
+
+  /**
+   * The file is read-only, so this always throws.
+   * @throws IllegalStateException always.
+   */
+  @Override
+  public void setARGB(int row, int col, int argb) throws IllegalStateException {
+    throw new IllegalStateException("This raster is read from a file");
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    int start = col;
+    int end = col + length;
+    if (row >= bounds.y && row < bounds.y + bounds.height) {
+      start = Math.min(Math.max(col, bounds.x), end);
+      end = Math.max(Math.min(end, bounds.x + bounds.width), start);
+    } else {
+      start = end;
+    }
+    // the runs left and right of the bounds are transparent
+    Arrays.fill(dst, offset, offset + start - col, Raster.TRANSPARENT);
+    Arrays.fill(dst, offset + end - col, offset + length, Raster.TRANSPARENT);
+    if (start < end) {
+      int r = row - bounds.y;
+      bands[r / bandRows].get((r % bandRows) * bounds.width + start - bounds.x, dst,
+              offset + start - col, end - start);
+    }
+  }
+
+  /**
+   * The file is read-only, so this always throws.
+   * @throws IllegalStateException always.
+   */
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset)
+          throws IllegalStateException {
+    throw new IllegalStateException("This raster is read from a file");
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    if (row < bounds.y || row >= bounds.y + bounds.height) {
+      return true;
+    }
+    int start = Math.max(col, bounds.x);
+    int end = Math.min(col + length, bounds.x + bounds.width);
+    int r = row - bounds.y;
+    IntBuffer band = bands[r / bandRows];
+    int base = (r % bandRows) * bounds.width - bounds.x;
+    for (int j = start; j < end; j++) {
+      if (band.get(base + j) >>> 24 != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = getARGB(row, col);
+    return new Pixel(Raster.red(argb), Raster.green(argb), Raster.blue(argb),
+            Raster.alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  /**
+   * Reads the pixels of the file into a tiled raster of their own.
+   * @return a mutable copy of the raster.
+   */
+  @Override
+  public IRaster copy() {
+    IRaster copy = new TiledRaster(height, width, Raster.TRANSPARENT);
+    copy.copyRegion(this, bounds.y, bounds.x, bounds.height, bounds.width);
+    return copy;
+  }
+}
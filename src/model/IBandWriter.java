@@ -0,0 +1,22 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * The writer which is handed the composed image of a project one band of rows at a time.
+ * A project rendered in bands never holds more of its composed image than one band,
+ * so the writer has to use or copy every band before it returns.
+ * The IBandWriter interface allows to
+ * <li> write a band of rows of a composed image </li>
+ */
+public interface IBandWriter {
+
+  /**
+   * Writes the next band of rows of the composed image.
+   * @param band a read-only raster with the full width of the image and the rows of the band,
+   *     which is only valid until this method returns.
+   * @param row the row of the image where the band starts.
+   * @throws IOException if the band cannot be written.
+   */
+  void write(IRaster band, int row) throws IOException;
+}
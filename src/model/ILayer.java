@@ -1,58 +1,117 @@
-package model;
-
-import model.filters.FilterOptions;
-
-/**
- * The Layer to be added to a project.
- * This allows for the layers to be made
- * with a name, the image on the layer, a list of filters applied to the layer,
- * and the height and width of the project.
- * The ILayer interface allows to
- * <li> add an image to the layer </li>
- * <li> add and apply a filter to the layer </li>
- * <li> get the name, image, and list of filters for a layer </li>
- */
-public interface ILayer {
-
-  /**
-   * Adds a given image to a layer based on an offset value given as x-coordinate and y-coordinate.
-   * @param x the x-coordinate of the offset.
-   * @param y the y-coordinate of the offset.
-   * @param img the given image to be added to the layer.
-   */
-  void addImage(int x, int y, IPixel[][] img);
-
-  /**
-   * Adds a filter to the list of filters.
-   * Helps to keep track of what filters are used on a layer.
-   * @param options the filter used on the layer.
-   */
-  void addFilter(FilterOptions options);
-
-  /**
-   * Applies filter added to a layer to the layer.
-   * @param composed the composed image.
-   * @return an image of type Pixel[][]
-   *     which is the image added to the layer with the filters of the layer added
-   */
-  IPixel[][] applyFilter(IPixel[][] composed);
-
-  /**
-   * Gets a copy of the image of a layer without the filters added.
-   * @return an image of type Pixel[][]
-   *     which is a copy of the image added to a layer without the filters added.
-   */
-  IPixel[][] getImage();
-
-  /**
-   * Gets the name of the layer.
-   * @return a String representing the name of the layer.
-   */
-  String getName();
-
-  /**
-   * Gets a copy of the filter added to the layer.
-   * @return a {@code List<FilterOptions>} representing the list of filters.
-   */
-  FilterOptions getFilter();
-}
+package model;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import model.filters.FilterOptions;
+
+/**
+ * The Layer to be added to a project.
+ * This allows for the layers to be made
+ * with a name, the image on the layer, a list of filters applied to the layer,
+ * and the height and width of the project.
+ * The ILayer interface allows to
+ * <li> add an image to the layer </li>
+ * <li> add and apply a filter to the layer </li>
+ * <li> get the name, image, and list of filters for a layer </li>
+ * <li> release the storage of the image of the layer </li>
+ */
+public interface ILayer extends AutoCloseable {
+
+  /**
+   * Adds a given image to a layer based on an offset value given as x-coordinate and y-coordinate.
+   * @param x the x-coordinate of the offset.
+   * @param y the y-coordinate of the offset.
+   * @param img the given image to be added to the layer.
+   */
+  void addImage(int x, int y, IPixel[][] img);
+
+  /**
+   * Adds a given raster to a layer based on an offset value given as x-coordinate and y-coordinate.
+   * @param x the x-coordinate of the offset.
+   * @param y the y-coordinate of the offset.
+   * @param img the given raster to be added to the layer.
+   */
+  void addImage(int x, int y, IRaster img);
+
+  /**
+   * Adds a filter to the list of filters.
+   * Helps to keep track of what filters are used on a layer.
+   * @param options the filter used on the layer.
+   */
+  void addFilter(FilterOptions options);
+
+  /**
+   * Applies filter added to a layer to the layer.
+   * @param composed the composed image.
+   * @return an image of type Pixel[][]
+   *     which is the image added to the layer with the filters of the layer added
+   */
+  IPixel[][] applyFilter(IPixel[][] composed);
+
+  /**
+   * Applies the filter added to a layer to the raster of the layer.
+   * @param composed the composed raster of the layers beneath this layer.
+   * @return an IRaster which is the raster of the layer with the filter of the layer added
+   */
+  IRaster applyFilter(IRaster composed);
+
+  /**
+   * Gets a copy of the image of a layer without the filters added.
+   * @return an image of type Pixel[][]
+   *     which is a copy of the image added to a layer without the filters added.
+   */
+  IPixel[][] getImage();
+
+  /**
+   * Gets an immutable snapshot of the raster of a layer without the filters added.
+   * The snapshot shares storage with the layer until the next image is added to the layer,
+   * which copies the raster first, so taking a snapshot costs no copy.
+   * @return an IRaster which is a read-only snapshot of the raster of the layer.
+   */
+  IRaster getRaster();
+
+  /**
+   * Gets the version of the layer, which changes every time an image or filter is added to it.
+   * Two calls that return the same version mean the layer did not change in between.
+   * @return a long representing the version of the layer.
+   */
+  long getVersion();
+
+  /**
+   * Gets the regions of the layer which changed after the given version.
+   * A filter change, or a change the layer no longer remembers, covers the whole layer.
+   * @param version the version of the layer to compare with.
+   * @return a {@code List<Rectangle>} with the changed regions, where x is the column,
+   *     y is the row, and the list is empty if nothing changed.
+   */
+  List<Rectangle> getChangedRegions(long version);
+
+  /**
+   * Gets the bounds of the content of the layer, the smallest rectangle which holds
+   * every image added to the layer. Every pixel outside of it is fully transparent.
+   * @return a {@code Rectangle} with the bounds of the content, where x is the column,
+   *     y is the row, and the rectangle is empty if no image was added to the layer.
+   */
+  Rectangle getBounds();
+
+  /**
+   * Gets the name of the layer.
+   * @return a String representing the name of the layer.
+   */
+  String getName();
+
+  /**
+   * Gets a copy of the filter added to the layer.
+   * @return a {@code List<FilterOptions>} representing the list of filters.
+   */
+  FilterOptions getFilter();
+
+  /**
+   * Releases the storage of the image of the layer if it is held outside of the heap.
+   * An image shared with other layers is only released once all of them are closed.
+   * The layer and the rasters it handed out can no longer be read once it is closed.
+   */
+  @Override
+  void close();
+}
@@ -1,27 +1,70 @@
-package model;
-
-/**
- * Interface for the state of the model.
- * This interface allows observation of the model's current project,
- * but not the mutation of these elements.
- * <li> save the composed image of the current project </li>
- * <li> get the current project </li>
- */
-public interface IModelState {
-
-  /**
-   * Saves a copy of the composed image with all filters.
-   * The result is an image after applying all filters on the image.
-   * @return an image of type Pixel[][]
-   *     which is the composed image of the project with all filters added
-   */
-  IPixel[][] saveImage();
-
-  /**
-   * Gets a copy of the Project.
-   * Gets the name, height, width, layers, and filteroptions for each layer
-   * and adds to a new Project to create the copy.
-   * @return a Project representing current project.
-   */
-  IProject getCurProject();
-}
+package model;
+
+import java.io.IOException;
+
+/**
+ * Interface for the state of the model.
+ * This interface allows observation of the model's current project,
+ * but not the mutation of these elements.
+ * <li> save the composed image of the current project </li>
+ * <li> compose the image of the current project into a given raster </li>
+ * <li> compose the image of the current project one band of rows at a time </li>
+ * <li> get the height and width of the current project </li>
+ * <li> get the current project </li>
+ */
+public interface IModelState {
+
+  /**
+   * Saves a copy of the composed image with all filters.
+   * The result is an image after applying all filters on the image.
+   * @return an image of type Pixel[][]
+   *     which is the composed image of the project with all filters added
+   */
+  IPixel[][] saveImage();
+
+  /**
+   * Composes the image of the current project with all filters into a raster.
+   * @return an IRaster which is the composed image of the project with all filters added
+   */
+  IRaster saveRaster();
+
+  /**
+   * Composes the image of the current project with all filters straight into the given raster.
+   * Only the regions that changed are composed again when the same raster is given again.
+   * @param target the raster with the size of the project the image is composed into.
+   * @throws IllegalArgumentException if the raster does not have the size of the project.
+   */
+  void renderImage(IRaster target) throws IllegalArgumentException;
+
+  /**
+   * Composes the image of the current project with all filters one band of rows at a time,
+   * straight from the current project instead of a copy of it,
+   * handing every band to the given writer from the top of the image down.
+   * @param bandHeight the number of rows of every band but the last one.
+   * @param writer the writer the bands are handed to.
+   * @throws IllegalArgumentException if the given band height is not positive.
+   * @throws IOException if the writer cannot write a band.
+   */
+  void renderBands(int bandHeight, IBandWriter writer)
+          throws IllegalArgumentException, IOException;
+
+  /**
+   * Gets the height of the current project, without copying it.
+   * @return an int representing the height of the current project.
+   */
+  int getHeight();
+
+  /**
+   * Gets the width of the current project, without copying it.
+   * @return an int representing the width of the current project.
+   */
+  int getWidth();
+
+  /**
+   * Gets a copy of the Project.
+   * Gets the name, height, width, layers, and filteroptions for each layer
+   * and adds to a new Project to create the copy.
+   * @return a Project representing current project.
+   */
+  IProject getCurProject();
+}
@@ -1,81 +1,135 @@
-package model;
-
-import java.util.List;
-
-import model.filters.FilterOptions;
-
-/**
- * The Project to be made.
- * This allows for the project to be made
- * with a name, a list of layers,
- * and the height and width of the project.
- * The IProject interface allows to
- * <li> add a layer to a project </li>
- * <li> add an image to a layer in a project </li>
- * <li> set a filter to the layer </li>
- * <li> save a copy of the composed image </li>
- * <li> get the list of layers for a project, name, height, and width </li>
- */
-public interface IProject {
-
-  /**
-   * Adds a layer to a project.
-   * @param name the name of the layer.
-   * @throws IllegalArgumentException if the name of the layer already exists in the project.
-   */
-  void addLayer(String name) throws IllegalArgumentException;
-
-  /**
-   * Adds an image to a layer in a project.
-   * @param name the name of the layer.
-   * @param image the image to be added to the layer.
-   * @param x the x-component of the offset.
-   * @param y the y-coordinate of the offset.
-   * @throws IllegalArgumentException if the name of the layer does not exist in the project.
-   */
-  void addImageToLayer(String name, IPixel[][] image, int x, int y)
-          throws IllegalArgumentException;
-
-  /**
-   * Sets all filters for a layer to the layer.
-   * @param name the name of the layer for the filter to be added to.
-   * @param options the filter to be added to the layer.
-   * @throws IllegalArgumentException if the name of the layer does not exist in the project.
-   */
-  void setFilter(String name, FilterOptions options) throws IllegalArgumentException;
-
-  /**
-   * Saves a copy of the composed image with all filters.
-   * The result is an image after applying all filters on the image.
-   * @return an image of type Pixel[][]
-   *     which is the composed image of the project with all filters added
-   */
-  IPixel[][] saveImage();
-
-  /**
-   * Gets a copy of the list of layers added to the project.
-   * @return a {@code List<Layer>} representing the list of layers.
-   */
-  List<ILayer> getLayers();
-
-  /**
-   * Gets the name of the project.
-   * @return a String representing the name of the project.
-   */
-  String getName();
-
-  /**
-   * Gets the height of the project.
-   * @return an int representing the height of the project.
-   */
-  int getHeight();
-
-  /**
-   * Gets the width of the project.
-   * @return an int representing the width of the project.
-   */
-  int getWidth();
-
-  List<String> getLayerNames();
-
-}
+package model;
+
+import java.io.IOException;
+import java.util.List;
+
+import model.filters.FilterOptions;
+
+/**
+ * The Project to be made.
+ * This allows for the project to be made
+ * with a name, a list of layers,
+ * and the height and width of the project.
+ * The IProject interface allows to
+ * <li> add a layer to a project </li>
+ * <li> add an image to a layer in a project </li>
+ * <li> set a filter to the layer </li>
+ * <li> save a copy of the composed image </li>
+ * <li> get the list of layers for a project, name, height, and width </li>
+ * <li> release the storage of the images of the project </li>
+ */
+public interface IProject extends AutoCloseable {
+
+  /**
+   * Adds a layer to a project.
+   * @param name the name of the layer.
+   * @throws IllegalArgumentException if the name of the layer already exists in the project.
+   */
+  void addLayer(String name) throws IllegalArgumentException;
+
+  /**
+   * Adds an image to a layer in a project.
+   * @param name the name of the layer.
+   * @param image the image to be added to the layer.
+   * @param x the x-component of the offset.
+   * @param y the y-coordinate of the offset.
+   * @throws IllegalArgumentException if the name of the layer does not exist in the project.
+   */
+  void addImageToLayer(String name, IPixel[][] image, int x, int y)
+          throws IllegalArgumentException;
+
+  /**
+   * Adds a raster to a layer in a project.
+   * @param name the name of the layer.
+   * @param image the raster to be added to the layer.
+   * @param x the x-component of the offset.
+   * @param y the y-coordinate of the offset.
+   * @throws IllegalArgumentException if the name of the layer does not exist in the project.
+   */
+  void addImageToLayer(String name, IRaster image, int x, int y)
+          throws IllegalArgumentException;
+
+  /**
+   * Sets all filters for a layer to the layer.
+   * @param name the name of the layer for the filter to be added to.
+   * @param options the filter to be added to the layer.
+   * @throws IllegalArgumentException if the name of the layer does not exist in the project.
+   */
+  void setFilter(String name, FilterOptions options) throws IllegalArgumentException;
+
+  /**
+   * Saves a copy of the composed image with all filters.
+   * The result is an image after applying all filters on the image.
+   * @return an image of type Pixel[][]
+   *     which is the composed image of the project with all filters added
+   */
+  IPixel[][] saveImage();
+
+  /**
+   * Composes the image with all filters into a raster.
+   * The result is the same image as {@link #saveImage()} stored as packed ARGB values.
+   * The composite below every layer is kept, so only the layers from the lowest layer
+   * that changed since the last call are composed again.
+   * @return a read-only IRaster which is the composed image of the project with all filters added
+   */
+  IRaster saveRaster();
+
+  /**
+   * Composes the image with all filters straight into the given raster,
+   * such as a raster backed by the data of an image on screen.
+   * The given raster becomes the top level of the composites kept by the project,
+   * so calling this again with the same raster only composes the regions that changed,
+   * and nothing is copied or allocated once it has been composed into the first time.
+   * The raster must not be written to by anything else while it is rendered into.
+   * @param target the raster with the size of the project the image is composed into.
+   * @throws IllegalArgumentException if the raster does not have the size of the project.
+   */
+  void renderInto(IRaster target) throws IllegalArgumentException;
+
+  /**
+   * Composes the image with all filters one band of rows at a time, handing every band
+   * to the given writer from the top of the image down.
+   * Every band is composed through all layers on its own, so no more than a few bands
+   * of the composed image are held at once, whatever the size of the project.
+   * @param bandHeight the number of rows of every band but the last one.
+   * @param writer the writer the bands are handed to.
+   * @throws IllegalArgumentException if the given band height is not positive.
+   * @throws IOException if the writer cannot write a band.
+   */
+  void renderBands(int bandHeight, IBandWriter writer)
+          throws IllegalArgumentException, IOException;
+
+  /**
+   * Gets a copy of the list of layers added to the project.
+   * @return a {@code List<Layer>} representing the list of layers.
+   */
+  List<ILayer> getLayers();
+
+  /**
+   * Gets the name of the project.
+   * @return a String representing the name of the project.
+   */
+  String getName();
+
+  /**
+   * Gets the height of the project.
+   * @return an int representing the height of the project.
+   */
+  int getHeight();
+
+  /**
+   * Gets the width of the project.
+   * @return an int representing the width of the project.
+   */
+  int getWidth();
+
+  List<String> getLayerNames();
+
+  /**
+   * Releases the storage of the images of every layer and of the composed images
+   * if they are held outside of the heap.
+   * The project and the rasters it handed out can no longer be read once it is closed.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,143 @@
+package model;
+
+/**
+ * This interface is for a raster which stores an image as packed ARGB values.
+ * Every pixel is a single int where the alpha component is stored in the highest byte,
+ * followed by the red, green, and blue components.
+ * The IRaster interface allows to
+ * <li> get the height and width of the raster </li>
+ * <li> get and set the packed ARGB value at a given row and column </li>
+ * <li> get and set a run of packed ARGB values along a row </li>
+ * <li> tell if a run of pixels is fully transparent </li>
+ * <li> copy a region of another raster </li>
+ * <li> make a raster which keeps only some channels of the raster </li>
+ * <li> view a pixel or the whole raster as {@code IPixel} values </li>
+ * <li> make a copy of the raster </li>
+ */
+public interface IRaster {
+
+  /**
+   * Gets the height of the raster.
+   * @return an int representing the number of rows in the raster.
+   */
+  int getHeight();
+
+  /**
+   * Gets the width of the raster.
+   * @return an int representing the number of columns in the raster.
+   */
+  int getWidth();
+
+  /**
+   * Gets the packed ARGB value at the given row and column.
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return an int representing the packed ARGB value of the pixel.
+   */
+  int getARGB(int row, int col);
+
+  /**
+   * Sets the packed ARGB value at the given row and column.
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @param argb the packed ARGB value of the pixel.
+   */
+  void setARGB(int row, int col, int argb);
+
+  /**
+   * Copies a run of packed ARGB values along a row into the given array.
+   * @param row the row of the run.
+   * @param col the column where the run starts.
+   * @param length the number of pixels in the run.
+   * @param dst the array the values are copied into.
+   * @param offset the index of the array where the first value is copied.
+   */
+  void getRow(int row, int col, int length, int[] dst, int offset);
+
+  /**
+   * Sets a run of packed ARGB values along a row from the given array.
+   * @param row the row of the run.
+   * @param col the column where the run starts.
+   * @param length the number of pixels in the run.
+   * @param src the array the values are copied from.
+   * @param offset the index of the array where the first value is.
+   */
+  void setRow(int row, int col, int length, int[] src, int offset);
+
+  /**
+   * Tells if every pixel of a run along a row is fully transparent.
+   * @param row the row of the run.
+   * @param col the column where the run starts.
+   * @param length the number of pixels in the run.
+   * @return true if the alpha value of every pixel of the run is 0.
+   */
+  default boolean isClear(int row, int col, int length) {
+    for (int j = col; j < col + length; j++) {
+      if (getARGB(row, j) >>> 24 != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies the given region of another raster into the same region of this raster.
+   * @param from the raster to be copied from, which is at least as big as the region.
+   * @param row the row where the region starts.
+   * @param col the column where the region starts.
+   * @param height the height of the region.
+   * @param width the width of the region.
+   */
+  default void copyRegion(IRaster from, int row, int col, int height, int width) {
+    int[] run = new int[width];
+    for (int i = row; i < row + height; i++) {
+      from.getRow(i, col, width, run, 0);
+      setRow(i, col, width, run, 0);
+    }
+  }
+
+  /**
+   * Makes a raster which keeps the alpha values and the chosen rgb channels of the raster
+   * and sets the other rgb channels to 0.
+   * The result may share storage with the raster, so callers should treat it as read-only
+   * and must not change the raster while the result is in use.
+   * @param keepRed true if the red channel is kept.
+   * @param keepGreen true if the green channel is kept.
+   * @param keepBlue true if the blue channel is kept.
+   * @return a raster with only the chosen channels of the raster.
+   */
+  default IRaster keepChannels(boolean keepRed, boolean keepGreen, boolean keepBlue) {
+    int mask = 0xff000000 | (keepRed ? 0xff0000 : 0) | (keepGreen ? 0xff00 : 0)
+            | (keepBlue ? 0xff : 0);
+    IRaster img = new Raster(getHeight(), getWidth());
+    int[] row = new int[getWidth()];
+    for (int i = 0; i < getHeight(); i++) {
+      getRow(i, 0, row.length, row, 0);
+      for (int j = 0; j < row.length; j++) {
+        row[j] &= mask;
+      }
+      img.setRow(i, 0, row.length, row, 0);
+    }
+    return img;
+  }
+
+  /**
+   * Gets a view of the pixel at the given row and column.
+   * @param row the row of the pixel.
+   * @param col the column of the pixel.
+   * @return an IPixel with the red, green, blue, and alpha values of the pixel.
+   */
+  IPixel getPixel(int row, int col);
+
+  /**
+   * Converts the raster into a 2D array of pixels.
+   * @return an image of type IPixel[][] with the same values as the raster.
+   */
+  IPixel[][] toPixels();
+
+  /**
+   * Makes a copy of the raster which does not share storage with this raster.
+   * @return an IRaster with the same values as this raster.
+   */
+  IRaster copy();
+}
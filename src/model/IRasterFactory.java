@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * The storage the rasters of a project are made in.
+ * A project makes the images of its layers and its composed images with one factory,
+ * either a {@link RasterLayout} on the heap or outside of it,
+ * or a {@link TileStore} which keeps the pixels in a file on disk.
+ * The IRasterFactory interface allows to
+ * <li> make a raster where every pixel has the same value </li>
+ * <li> release the storage of a raster once it is no longer needed </li>
+ */
+public interface IRasterFactory {
+
+  /**
+   * Creates a raster where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @return a new raster.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  IRaster create(int height, int width, int fill) throws IllegalArgumentException;
+
+  /**
+   * Releases the storage of a raster made by this factory, which can no longer be read.
+   * Rasters stored on the heap are left to the garbage collector, so this does nothing.
+   * @param raster the raster to be released.
+   */
+  default void release(IRaster raster) {
+    // nothing to do for a raster on the heap
+  }
+}
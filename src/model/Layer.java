@@ -1,98 +1,261 @@
-package model;
-
-import model.filters.FilterOptions;
-import model.filters.Normal;
-
-/**
- * The Layer to be added to a project.
- * This class implements the interface ILayer.
- * This allows for the layers to be made
- * with a name, the image on the layer, a list of filters applied to the layer,
- * and the height and width of the project.
- * The Layer class allows to
- * <li> add an image to the layer </li>
- * <li> add and apply the filter to the layer </li>
- * <li> get the name, image, and filters for a layer </li>
- */
-public class Layer implements ILayer {
-
-  private final String name;
-  private final IPixel[][] image;
-  private FilterOptions filter;
-  private final int height;
-  private final int width;
-
-  /**
-   * Constructor for a Layer.
-   * Creates a {@code Layer} using values initialized in the constructor.
-   * @param name the name of the layer.
-   * @param height the height of the layer.
-   * @param width the width of the layer.
-   * @throws IllegalArgumentException if the given height or width is not positive.
-   */
-  public Layer(String name, int height, int width) throws IllegalArgumentException {
-    if (height <= 0 || width <= 0) {
-      throw new IllegalArgumentException("Invalid value for height or width. " +
-              "Must both be positive");
-    }
-    this.height = height;
-    this.width = width;
-    this.image = new Pixel[this.height][this.width];
-    for (int i = 0; i < this.height; i++) {
-      for (int j = 0; j < this.width; j++) {
-        image[i][j] = new Pixel(255, 255, 255, 0);
-      }
-    }
-    this.name = name;
-    this.filter = new Normal();
-  }
-
-  @Override
-  public void addImage(int x, int y, IPixel[][] img) {
-    for (int i = 0; (i + y) < Math.min(img.length + y, height); i++) {
-      for (int j = 0; (j + x) < Math.min(img[0].length + x, width); j++) {
-        this.image[i + y][j + x] = img[i][j];
-      }
-    }
-  }
-
-  @Override
-  public void addFilter(FilterOptions options) {
-    this.filter = options;
-  }
-
-  @Override
-  public IPixel[][] applyFilter(IPixel[][] composed) {
-    Pixel[][] img = this.getImage();
-    return filter.apply(img, composed);
-  }
-
-  @Override
-  public Pixel[][] getImage() {
-    Pixel[][] img = new Pixel[this.height][this.width];
-    int r;
-    int g;
-    int b;
-    int a;
-    for (int i = 0; i < this.height; i++) {
-      for (int j = 0; j < this.width; j++) {
-        r = image[i][j].getR();
-        g = image[i][j].getG();
-        b = image[i][j].getB();
-        a = image[i][j].getA();
-        img[i][j] = new Pixel(r, g, b, a);
-      }
-    }
-    return img;
-  }
-
-  @Override
-  public String getName() {
-    return name;
-  }
-
-  @Override
-  public FilterOptions getFilter() {
-    return this.filter;
-  }
-}
+package model;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.filters.FilterOptions;
+import model.filters.Normal;
+
+/**
+ * The Layer to be added to a project.
+ * This class implements the interface ILayer.
+ * This allows for the layers to be made
+ * with a name, the image on the layer, a list of filters applied to the layer,
+ * and the height and width of the project.
+ * The Layer class allows to
+ * <li> add an image to the layer </li>
+ * <li> add and apply the filter to the layer </li>
+ * <li> get the name, image, and filters for a layer </li>
+ */
+public class Layer implements ILayer {
+  // how many recent changes a layer remembers the regions of
+  private static final int MAX_CHANGES = 16;
+
+  private final String name;
+  private final IRasterFactory layout;
+  private IRaster image;
+  // read-only snapshot handed out to readers, the image must be copied before its next write
+  private IRaster snapshot;
+  private FilterOptions filter;
+  private long version;
+  // regions changed by the most recent versions, oldest first;
+  // regions of the versions up to forgottenVersion are no longer known
+  private final List<Long> changeVersions;
+  private final List<Rectangle> changes;
+  private long forgottenVersion;
+  // the smallest rectangle holding every image added, everything outside is transparent
+  private Rectangle bounds;
+  private final int height;
+  private final int width;
+
+  /**
+   * Constructor for a Layer.
+   * Creates a {@code Layer} using values initialized in the constructor.
+   * @param name the name of the layer.
+   * @param height the height of the layer.
+   * @param width the width of the layer.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Layer(String name, int height, int width) throws IllegalArgumentException {
+    this(name, height, width, RasterLayout.TILED);
+  }
+
+  /**
+   * Constructor for a Layer.
+   * Creates a {@code Layer} which stores its image with the given layout or store.
+   * @param name the name of the layer.
+   * @param height the height of the layer.
+   * @param width the width of the layer.
+   * @param layout the layout or store the raster of the image of the layer is made with.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Layer(String name, int height, int width, IRasterFactory layout)
+          throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.height = height;
+    this.width = width;
+    this.layout = layout;
+    this.image = layout.create(this.height, this.width, Raster.TRANSPARENT);
+    this.snapshot = null;
+    this.name = name;
+    this.filter = new Normal();
+    this.version = 0;
+    this.changeVersions = new ArrayList<>();
+    this.changes = new ArrayList<>();
+    this.forgottenVersion = 0;
+    this.bounds = new Rectangle();
+  }
+
+  @Override
+  public void addImage(int x, int y, IPixel[][] img) {
+    this.recordChange(new Rectangle(x, y, img[0].length, img.length));
+    this.grow(new Rectangle(x, y, img[0].length, img.length));
+    this.unshare();
+    for (int i = 0; (i + y) < Math.min(img.length + y, height); i++) {
+      for (int j = 0; (j + x) < Math.min(img[0].length + x, width); j++) {
+        IPixel p = img[i][j];
+        this.image.setARGB(i + y, j + x, Raster.pack(p.getR(), p.getG(), p.getB(), p.getA()));
+      }
+    }
+  }
+
+  @Override
+  public void addImage(int x, int y, IRaster img) {
+    boolean shared = x == 0 && y == 0 && img.getHeight() == height && img.getWidth() == width
+            && (img instanceof ReadOnlyRaster || img instanceof FileRaster);
+    // an image read from a file only holds pixels inside its own bounds
+    Rectangle region = shared && img instanceof FileRaster ? ((FileRaster) img).getBounds()
+            : new Rectangle(x, y, img.getWidth(), img.getHeight());
+    if (shared) {
+      // the whole image is replaced, so what it held before changes as well
+      this.recordChange(bounds.isEmpty() ? region : bounds.union(region));
+      this.bounds = new Rectangle();
+    } else {
+      this.recordChange(region);
+    }
+    this.grow(region);
+    if (shared) {
+      // a snapshot or a file covering the whole layer can be shared until one of them is written
+      if (img instanceof ReadOnlyRaster) {
+        ((ReadOnlyRaster) img).hold();
+      }
+      this.image = img;
+      this.snapshot = img;
+      return;
+    }
+    this.unshare();
+    int cols = Math.min(img.getWidth(), width - x);
+    if (cols <= 0) {
+      return;
+    }
+    // copied a row at a time, so the image is read and written in runs instead of per pixel
+    int[] row = new int[cols];
+    for (int i = 0; (i + y) < Math.min(img.getHeight() + y, height); i++) {
+      img.getRow(i, 0, cols, row, 0);
+      this.image.setRow(i + y, x, cols, row, 0);
+    }
+  }
+
+  @Override
+  public void addFilter(FilterOptions options) {
+    this.recordChange(new Rectangle(0, 0, width, height));
+    this.filter = options;
+  }
+
+  @Override
+  public IPixel[][] applyFilter(IPixel[][] composed) {
+    IPixel[][] img = this.getImage();
+    return filter.apply(img, composed);
+  }
+
+  @Override
+  public IRaster applyFilter(IRaster composed) {
+    return filter.apply(this.getRaster(), composed);
+  }
+
+  @Override
+  public IPixel[][] getImage() {
+    return image.toPixels();
+  }
+
+  @Override
+  public IRaster getRaster() {
+    if (snapshot == null) {
+      snapshot = new ReadOnlyRaster(image, layout);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Gives the layer its own copy of its raster if a snapshot of it has been handed out
+   * or if it is read from a file.
+   */
+  private void unshare() {
+    if (image instanceof FileRaster) {
+      // the pixels of a file are only read once the layer is first written
+      Rectangle region = ((FileRaster) image).getBounds();
+      IRaster copy = layout.create(height, width, Raster.TRANSPARENT);
+      copy.copyRegion(image, region.y, region.x, region.height, region.width);
+      this.image = copy;
+      this.snapshot = null;
+    } else if (snapshot != null) {
+      IRaster held = image;
+      this.image = image.copy();
+      this.snapshot = null;
+      // a snapshot held from another layer is let go of once this layer has its own copy
+      if (held instanceof ReadOnlyRaster) {
+        ((ReadOnlyRaster) held).release();
+      }
+    }
+  }
+
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public List<Rectangle> getChangedRegions(long version) {
+    List<Rectangle> regions = new ArrayList<>();
+    if (version < forgottenVersion) {
+      regions.add(new Rectangle(0, 0, width, height));
+      return regions;
+    }
+    for (int i = 0; i < changes.size(); i++) {
+      if (changeVersions.get(i) > version) {
+        regions.add(new Rectangle(changes.get(i)));
+      }
+    }
+    return regions;
+  }
+
+  @Override
+  public Rectangle getBounds() {
+    return new Rectangle(bounds);
+  }
+
+  /**
+   * Grows the bounds of the content of the layer to hold the given region.
+   * @param region the region of an added image, which is clipped to the layer.
+   */
+  private void grow(Rectangle region) {
+    Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+    if (clipped.isEmpty()) {
+      return;
+    }
+    bounds = bounds.isEmpty() ? clipped : bounds.union(clipped);
+  }
+
+  /**
+   * Moves the layer to its next version and remembers the region changed by it.
+   * @param region the changed region, which is clipped to the layer.
+   */
+  private void recordChange(Rectangle region) {
+    this.version++;
+    Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+    if (clipped.isEmpty()) {
+      return;
+    }
+    changeVersions.add(version);
+    changes.add(clipped);
+    if (changes.size() > MAX_CHANGES) {
+      forgottenVersion = changeVersions.remove(0);
+      changes.remove(0);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public FilterOptions getFilter() {
+    return this.filter;
+  }
+
+  @Override
+  public void close() {
+    // a snapshot held by another layer is only released once every layer is closed,
+    // and an image read from a file is left to the file
+    if (snapshot instanceof ReadOnlyRaster) {
+      ((ReadOnlyRaster) snapshot).release();
+    } else if (snapshot == null) {
+      layout.release(image);
+    }
+  }
+}
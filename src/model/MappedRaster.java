@@ -0,0 +1,292 @@
+package model;
+
+import java.lang.ref.Cleaner;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The MappedRaster to be used to store an image on disk.
+ * This class implements the interface IRaster.
+ * The image is split into square tiles of packed ARGB values which are kept in the
+ * scratch file of a {@link TileStore} and mapped into memory only while they are used.
+ * A tile is only stored the first time one of its pixels is set, so every untouched tile
+ * costs nothing and reads as the fill value of the raster.
+ * A tile is stored by setting its slot with a compare-and-set, and every tile is held while
+ * it is used, so different threads may read and write different pixels of the raster at the
+ * same time without taking a lock.
+ * The tiles of a raster are given back to the store once it is closed or collected.
+ * The MappedRaster class allows to
+ * <li> get and set the packed ARGB value of a pixel or of a run of pixels </li>
+ * <li> tell if a run of pixels is fully transparent without reading untouched tiles </li>
+ * <li> close the raster once it is no longer needed </li>
+ */
+public class MappedRaster implements IRaster, AutoCloseable {
+  private static final int SHIFT = 6;
+  private static final int MASK = TileStore.TILE_SIZE - 1;
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final TileStore store;
+  private final int height;
+  private final int width;
+  private final int fill;
+  private final int columns;
+  // the slot of every tile in the store, or -1 for a tile which only holds the fill value
+  private final AtomicIntegerArray slots;
+  private final Cleaner.Cleanable cleanable;
+  private volatile boolean closed;
+
+  /**
+   * Constructor for a MappedRaster.
+   * Creates a {@code MappedRaster} in the given store where every pixel has the given
+   * packed ARGB value.
+   * @param store the store the tiles of the raster are kept in.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  MappedRaster(TileStore store, int height, int width, int fill)
+          throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.store = store;
+    this.height = height;
+    this.width = width;
+    this.fill = fill;
+    this.columns = (width + MASK) >> SHIFT;
+    int count = columns * ((height + MASK) >> SHIFT);
+    int[] untouched = new int[count];
+    Arrays.fill(untouched, -1);
+    this.slots = new AtomicIntegerArray(untouched);
+    this.cleanable = CLEANER.register(this, new Release(store, slots));
+    this.closed = false;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Finds the slot of a tile.
+   * @param index the index of the tile.
+   * @return the slot of the tile in the store, or -1 if it only holds the fill value.
+   * @throws IllegalStateException if the raster has been closed.
+   */
+  private int slot(int index) throws IllegalStateException {
+    if (closed) {
+      throw new IllegalStateException("The raster has been closed.");
+    }
+    return slots.get(index);
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    int slot = slot((row >> SHIFT) * columns + (col >> SHIFT));
+    if (slot < 0) {
+      return fill;
+    }
+    try (TileStore.Tile tile = store.tile(slot)) {
+      return tile.pixels().get(((row & MASK) << SHIFT) | (col & MASK));
+    }
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    try (TileStore.Tile tile = store.tile(writable((row >> SHIFT) * columns + (col >> SHIFT)))) {
+      tile.pixels().put(((row & MASK) << SHIFT) | (col & MASK), argb);
+    }
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TileStore.TILE_SIZE - (j & MASK), col + length - j);
+      int slot = slot(first + (j >> SHIFT));
+      if (slot < 0) {
+        Arrays.fill(dst, offset + j - col, offset + j - col + span, fill);
+      } else {
+        try (TileStore.Tile tile = store.tile(slot)) {
+          tile.pixels().get(start | (j & MASK), dst, offset + j - col, span);
+        }
+      }
+      j += span;
+    }
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TileStore.TILE_SIZE - (j & MASK), col + length - j);
+      try (TileStore.Tile tile = store.tile(writable(first + (j >> SHIFT)))) {
+        tile.pixels().put(start | (j & MASK), src, offset + j - col, span);
+      }
+      j += span;
+    }
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TileStore.TILE_SIZE - (j & MASK), col + length - j);
+      int slot = slot(first + (j >> SHIFT));
+      if (slot < 0) {
+        if (fill >>> 24 != 0) {
+          return false;
+        }
+      } else {
+        try (TileStore.Tile tile = store.tile(slot)) {
+          IntBuffer pixels = tile.pixels();
+          for (int i = start | (j & MASK); i < (start | (j & MASK)) + span; i++) {
+            if (pixels.get(i) >>> 24 != 0) {
+              return false;
+            }
+          }
+        }
+      }
+      j += span;
+    }
+    return true;
+  }
+
+  /**
+   * Copies the given region of another raster into the same region of this raster.
+   * A whole tile which was never set in another mapped raster with the same fill value
+   * is given back to the store instead of copied, so it is not stored again.
+   * @param from the raster to be copied from.
+   * @param row the row where the region starts.
+   * @param col the column where the region starts.
+   * @param height the height of the region.
+   * @param width the width of the region.
+   */
+  @Override
+  public void copyRegion(IRaster from, int row, int col, int height, int width) {
+    if (!(from instanceof MappedRaster) || ((MappedRaster) from).fill != fill) {
+      IRaster.super.copyRegion(from, row, col, height, width);
+      return;
+    }
+    MappedRaster other = (MappedRaster) from;
+    for (int top = row; top < row + height; ) {
+      int rows = Math.min(TileStore.TILE_SIZE - (top & MASK), row + height - top);
+      for (int left = col; left < col + width; ) {
+        int cols = Math.min(TileStore.TILE_SIZE - (left & MASK), col + width - left);
+        int index = (top >> SHIFT) * columns + (left >> SHIFT);
+        if (rows == TileStore.TILE_SIZE && cols == TileStore.TILE_SIZE
+                && other.slot(index) < 0) {
+          int slot = slots.getAndSet(index, -1);
+          if (slot >= 0) {
+            store.free(slot);
+          }
+        } else {
+          int[] run = new int[cols];
+          for (int i = top; i < top + rows; i++) {
+            other.getRow(i, left, cols, run, 0);
+            setRow(i, left, cols, run, 0);
+          }
+        }
+        left += cols;
+      }
+      top += rows;
+    }
+  }
+
+  /**
+   * Gets the slot of a tile which this raster may write to,
+   * storing the tile with the fill value first if it was never set.
+   * @param index the index of the tile.
+   * @return the slot of the tile in the store.
+   */
+  private int writable(int index) {
+    int slot = slot(index);
+    while (slot < 0) {
+      int stored = store.allocate(fill);
+      if (slots.compareAndSet(index, -1, stored)) {
+        return stored;
+      }
+      // another thread stored the tile first
+      store.free(stored);
+      slot = slot(index);
+    }
+    return slot;
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = getARGB(row, col);
+    return new Pixel(Raster.red(argb), Raster.green(argb), Raster.blue(argb),
+            Raster.alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public MappedRaster copy() {
+    MappedRaster copy = new MappedRaster(store, height, width, fill);
+    for (int i = 0; i < slots.length(); i++) {
+      int slot = slot(i);
+      if (slot >= 0) {
+        try (TileStore.Tile from = store.tile(slot);
+             TileStore.Tile to = store.tile(copy.writable(i))) {
+          to.pixels().put(0, from.pixels(), 0, TileStore.TILE_SIZE * TileStore.TILE_SIZE);
+        }
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Closes the raster, giving its tiles back to the store.
+   * Closing a raster which is already closed does nothing.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    cleanable.clean();
+  }
+
+  /**
+   * Gives the tiles of a raster back to its store, once it is closed or collected.
+   */
+  private static class Release implements Runnable {
+    private final TileStore store;
+    private final AtomicIntegerArray slots;
+
+    Release(TileStore store, AtomicIntegerArray slots) {
+      this.store = store;
+      this.slots = slots;
+    }
+
+    @Override
+    public void run() {
+      for (int i = 0; i < slots.length(); i++) {
+        int slot = slots.getAndSet(i, -1);
+        if (slot >= 0) {
+          store.free(slot);
+        }
+      }
+    }
+  }
+}
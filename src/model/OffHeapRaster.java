@@ -0,0 +1,169 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The OffHeapRaster to be used to store an image too large for the heap.
+ * This class implements the interface IRaster.
+ * The packed ARGB values are stored in direct buffers outside of the Java heap,
+ * so a print-size canvas neither needs a giant heap nor makes the garbage collector
+ * copy or scan its pixels. The rows are split into bands so no buffer holds more than
+ * 2^26 pixels, and the whole raster may hold more pixels than an array can.
+ * Once a raster is closed its buffers are freed right away and reading or writing it throws,
+ * so a raster must not be closed while another thread still reads or writes it.
+ * The OffHeapRaster class allows to
+ * <li> get and set the packed ARGB value of a pixel or of a run of pixels </li>
+ * <li> close the raster once it is no longer needed </li>
+ */
+public class OffHeapRaster implements IRaster, AutoCloseable {
+  // the most pixels held by the buffer of one band of rows
+  private static final int BAND_PIXELS = 1 << 26;
+
+  private final int height;
+  private final int width;
+  private final int bandRows;
+  // null once the raster is closed
+  private IntBuffer[] bands;
+  // the buffers the bands are views of, which are freed when the raster is closed
+  private ByteBuffer[] memory;
+
+  /**
+   * Constructor for an OffHeapRaster.
+   * Creates an {@code OffHeapRaster} where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public OffHeapRaster(int height, int width, int fill) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.height = height;
+    this.width = width;
+    this.bandRows = Math.max(1, BAND_PIXELS / width);
+    this.bands = new IntBuffer[(height + bandRows - 1) / bandRows];
+    this.memory = new ByteBuffer[bands.length];
+    int[] run = null;
+    for (int b = 0; b < bands.length; b++) {
+      int rows = Math.min(bandRows, height - b * bandRows);
+      // direct buffers start out as zero, which is the transparent pixel
+      memory[b] = ByteBuffer.allocateDirect(rows * width * Integer.BYTES)
+              .order(ByteOrder.nativeOrder());
+      bands[b] = memory[b].asIntBuffer();
+      if (fill != 0) {
+        if (run == null) {
+          run = new int[width];
+          Arrays.fill(run, fill);
+        }
+        for (int i = 0; i < rows; i++) {
+          bands[b].put(i * width, run, 0, width);
+        }
+      }
+    }
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Tells if the raster has been closed.
+   * @return true if the raster has been closed and can no longer be used.
+   */
+  public boolean isClosed() {
+    return bands == null;
+  }
+
+  /**
+   * Finds the buffer holding the given row.
+   * @param row the row.
+   * @return the buffer of the band of rows holding the row.
+   * @throws IllegalStateException if the raster has been closed.
+   */
+  private IntBuffer band(int row) throws IllegalStateException {
+    IntBuffer[] open = bands;
+    if (open == null) {
+      throw new IllegalStateException("The raster has been closed.");
+    }
+    return open[row / bandRows];
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    return band(row).get((row % bandRows) * width + col);
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    band(row).put((row % bandRows) * width + col, argb);
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    band(row).get((row % bandRows) * width + col, dst, offset, length);
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    band(row).put((row % bandRows) * width + col, src, offset, length);
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = getARGB(row, col);
+    return new Pixel(Raster.red(argb), Raster.green(argb), Raster.blue(argb),
+            Raster.alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public OffHeapRaster copy() {
+    OffHeapRaster copy = new OffHeapRaster(height, width, 0);
+    for (int b = 0; b < copy.bands.length; b++) {
+      IntBuffer from = band(b * bandRows);
+      copy.bands[b].put(0, from, 0, from.capacity());
+    }
+    return copy;
+  }
+
+  /**
+   * Closes the raster and frees the memory of its buffers.
+   * Closing a raster which is already closed does nothing.
+   */
+  @Override
+  public void close() {
+    ByteBuffer[] held;
+    synchronized (this) {
+      held = memory;
+      bands = null;
+      memory = null;
+    }
+    if (held != null) {
+      for (ByteBuffer buffer : held) {
+        DirectBuffers.free(buffer);
+      }
+    }
+  }
+
+}
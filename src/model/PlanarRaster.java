@@ -0,0 +1,168 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The PlanarRaster to be used to store an image one channel at a time.
+ * This class implements the interface IRaster.
+ * The red, green, blue, and alpha components are stored in four separate arrays of bytes,
+ * each row by row, instead of one packed int per pixel.
+ * A filter which only keeps one channel, or a test of the alpha values of a run of pixels,
+ * then streams over one contiguous array instead of every component of every pixel.
+ * The PlanarRaster class allows to
+ * <li> get and set the packed ARGB value of a pixel or of a run of pixels </li>
+ * <li> tell if a run of pixels is fully transparent from the alpha values alone </li>
+ * <li> make a raster which keeps only some channels of this raster </li>
+ */
+public class PlanarRaster implements IRaster {
+  private final int height;
+  private final int width;
+  private final byte[] red;
+  private final byte[] green;
+  private final byte[] blue;
+  private final byte[] alpha;
+
+  /**
+   * Constructor for a PlanarRaster.
+   * Creates a {@code PlanarRaster} where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public PlanarRaster(int height, int width, int fill) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.height = height;
+    this.width = width;
+    this.red = plane(height * width, (fill >> 16) & 0xff);
+    this.green = plane(height * width, (fill >> 8) & 0xff);
+    this.blue = plane(height * width, fill & 0xff);
+    this.alpha = plane(height * width, fill >>> 24);
+  }
+
+  /**
+   * Creates a PlanarRaster from the given channels, which it shares.
+   */
+  private PlanarRaster(int height, int width, byte[] red, byte[] green, byte[] blue,
+                       byte[] alpha) {
+    this.height = height;
+    this.width = width;
+    this.red = red;
+    this.green = green;
+    this.blue = blue;
+    this.alpha = alpha;
+  }
+
+  /**
+   * Creates a channel where every value is the given value.
+   */
+  private static byte[] plane(int size, int value) {
+    byte[] plane = new byte[size];
+    if (value != 0) {
+      Arrays.fill(plane, (byte) value);
+    }
+    return plane;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    int i = row * width + col;
+    return (alpha[i] << 24) | ((red[i] & 0xff) << 16) | ((green[i] & 0xff) << 8)
+            | (blue[i] & 0xff);
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    int i = row * width + col;
+    alpha[i] = (byte) (argb >>> 24);
+    red[i] = (byte) (argb >> 16);
+    green[i] = (byte) (argb >> 8);
+    blue[i] = (byte) argb;
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    int start = row * width + col;
+    for (int i = 0; i < length; i++) {
+      dst[offset + i] = (alpha[start + i] << 24) | ((red[start + i] & 0xff) << 16)
+              | ((green[start + i] & 0xff) << 8) | (blue[start + i] & 0xff);
+    }
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    int start = row * width + col;
+    for (int i = 0; i < length; i++) {
+      int argb = src[offset + i];
+      alpha[start + i] = (byte) (argb >>> 24);
+      red[start + i] = (byte) (argb >> 16);
+      green[start + i] = (byte) (argb >> 8);
+      blue[start + i] = (byte) argb;
+    }
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    int start = row * width + col;
+    for (int i = start; i < start + length; i++) {
+      if (alpha[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = getARGB(row, col);
+    return new Pixel(Raster.red(argb), Raster.green(argb), Raster.blue(argb),
+            Raster.alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public PlanarRaster copy() {
+    return new PlanarRaster(height, width, red.clone(), green.clone(), blue.clone(),
+            alpha.clone());
+  }
+
+  /**
+   * Makes a raster which keeps the alpha values and the chosen rgb channels of this raster
+   * and sets the other rgb channels to 0.
+   * The kept channels are shared with this raster, not copied, and the channels set to 0
+   * share one array, so the result is read-only.
+   * @param keepRed true if the red channel is kept.
+   * @param keepGreen true if the green channel is kept.
+   * @param keepBlue true if the blue channel is kept.
+   * @return a read-only raster with only the chosen channels of this raster.
+   */
+  @Override
+  public IRaster keepChannels(boolean keepRed, boolean keepGreen, boolean keepBlue) {
+    byte[] zero = new byte[height * width];
+    return new ReadOnlyRaster(new PlanarRaster(height, width, keepRed ? red : zero,
+            keepGreen ? green : zero, keepBlue ? blue : zero, alpha));
+  }
+}
@@ -1,148 +1,365 @@
-package model;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import model.filters.FilterOptions;
-
-/**
- * The Project to be made.
- * This class implements the interface IProject.
- * This allows for the project to be made
- * with a name, a list of layers,
- * and the height and width of the project.
- * The Project class allows to
- * <li> add a layer to a project </li>
- * <li> add an image to a layer in a project </li>
- * <li> set a filter to the layer </li>
- * <li> save a copy of the composed image </li>
- * <li> get the list of layers for a project, name, height, and width </li>
- */
-public class Project implements IProject {
-  private final Map<String, ILayer> layersMap;
-  private final List<ILayer> layers;
-
-  private final String name;
-  private final int height;
-  private final int width;
-
-  /**
-   * Constructor for a Project.
-   * Creates a {@code Project} using values initialized in the constructor.
-   * @param name the name of the project.
-   * @param height the height of the project.
-   * @param width the width of the project.
-   * @throws IllegalArgumentException if the given height or width is not positive.
-   */
-  public Project(String name, int height, int width) throws IllegalArgumentException {
-    if (height <= 0 || width <= 0) {
-      throw new IllegalArgumentException("Invalid value for height or width. " +
-              "Must both be positive");
-    }
-    this.name = name;
-    this.height = height;
-    this.width = width;
-    this.layersMap = new HashMap<String, ILayer>();
-    this.layers = new ArrayList<>();
-  }
-
-  @Override
-  public void addLayer(String name) throws IllegalArgumentException {
-    if (layersMap.containsKey(name)) {
-      throw new IllegalArgumentException("The provided layer name already exists.");
-    }
-    Layer tmp = new Layer(name, height, width);
-    layersMap.put(name, tmp);
-    layers.add(tmp);
-  }
-
-  @Override
-  public void addImageToLayer(String name, IPixel[][] image, int x, int y)
-          throws IllegalArgumentException {
-    if (!layersMap.containsKey(name)) {
-      throw new IllegalArgumentException("The provided layer name does not exist");
-    }
-    layersMap.get(name).addImage(x, y, image);
-  }
-
-  @Override
-  public void setFilter(String name, FilterOptions options) throws IllegalArgumentException {
-    if (!layersMap.containsKey(name)) {
-      throw new IllegalArgumentException("The provided layer name does not exist");
-    }
-    layersMap.get(name).addFilter(options);
-  }
-
-  @Override
-  public IPixel[][] saveImage() {
-    Pixel[][] composed = new Pixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        composed[i][j] = new Pixel(255, 255, 255, 0); // sets background
-      }
-    }
-    int fR;
-    int fG;
-    int fB;
-    int a;
-    int r;
-    int g;
-    int b;
-    double fA;
-    double com;
-    for (ILayer l : layers) {
-      IPixel[][] img = l.applyFilter(composed);
-      for (int i = 0; i < height; i++) {
-        for (int j = 0; j < width; j++) {
-          a = img[i][j].getA();
-          r = img[i][j].getR();
-          g = img[i][j].getG();
-          b = img[i][j].getB();
-          com = composed[i][j].getA() / 255.0 * (1 - (a / 255.0));
-          fA = a / 255.0 + com;
-          if (a == 255) {
-            composed[i][j] = new Pixel(r, g, b, a);
-          } else if (a > 0 && a < 255) {
-            fR = (int) Math.ceil(((a / 255.0 * r + composed[i][j].getR() * com) * (1.0 / fA)));
-            fG = (int) Math.ceil(((a / 255.0 * g + composed[i][j].getG() * com) * (1.0 / fA)));
-            fB = (int) Math.ceil(((a / 255.0 * b + composed[i][j].getB() * com) * (1.0 / fA)));
-            fA *= 255;
-            composed[i][j] = new Pixel(fR, fG, fB, (int) (Math.ceil(fA)));
-          }
-        }
-      }
-    }
-    return composed;
-  }
-
-  @Override
-  public List<ILayer> getLayers() {
-    return new ArrayList<ILayer>(layers);
-  }
-
-  @Override
-  public String getName() {
-    return name;
-  }
-
-  @Override
-  public int getHeight() {
-    return height;
-  }
-
-  @Override
-  public int getWidth() {
-    return width;
-  }
-
-  @Override
-  public List<String> getLayerNames() {
-    List<String> layerNames = new ArrayList<>();
-    for (ILayer l : layers) {
-      layerNames.add(l.getName());
-    }
-    return layerNames;
-  }
-}
+package model;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.filters.FilterOptions;
+
+/**
+ * The Project to be made.
+ * This class implements the interface IProject.
+ * This allows for the project to be made
+ * with a name, a list of layers,
+ * and the height and width of the project.
+ * The Project class allows to
+ * <li> add a layer to a project </li>
+ * <li> add an image to a layer in a project </li>
+ * <li> set a filter to the layer </li>
+ * <li> save a copy of the composed image </li>
+ * <li> get the list of layers for a project, name, height, and width </li>
+ */
+public class Project implements IProject {
+  // how many separate regions are recomposed before they are merged into one
+  private static final int MAX_REGIONS = 8;
+
+  private final Map<String, ILayer> layersMap;
+  private final List<ILayer> layers;
+  // composites.get(k) is the composite of the layers below layer k,
+  // built from composedLayers.get(k - 1) at version composedVersions.get(k - 1);
+  // a composite handed out by saveRaster is shared and must be copied before a write
+  private final List<IRaster> composites;
+  private final List<Boolean> sharedComposites;
+  private final List<ILayer> composedLayers;
+  private final List<Long> composedVersions;
+  private final TileCompositor compositor;
+  // the raster on screen the top level was last composed into, if it is still the top level
+  private IRaster display;
+
+  private final String name;
+  private final IRasterFactory layout;
+  private final int height;
+  private final int width;
+
+  /**
+   * Constructor for a Project.
+   * Creates a {@code Project} using values initialized in the constructor.
+   * @param name the name of the project.
+   * @param height the height of the project.
+   * @param width the width of the project.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Project(String name, int height, int width) throws IllegalArgumentException {
+    this(name, height, width, RasterLayout.TILED, new TileCompositor());
+  }
+
+  /**
+   * Constructor for a Project.
+   * Creates a {@code Project} which stores the images of its layers with the given layout,
+   * or in the given tile store to keep them on disk.
+   * @param name the name of the project.
+   * @param height the height of the project.
+   * @param width the width of the project.
+   * @param layout the layout or store the rasters of the images of the project are made with.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Project(String name, int height, int width, IRasterFactory layout)
+          throws IllegalArgumentException {
+    this(name, height, width, layout, new TileCompositor());
+  }
+
+  /**
+   * Constructor for a Project.
+   * Creates a {@code Project} which composes its image with the given compositor.
+   * @param name the name of the project.
+   * @param height the height of the project.
+   * @param width the width of the project.
+   * @param compositor the compositing engine used to compose the image of the project.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Project(String name, int height, int width, TileCompositor compositor)
+          throws IllegalArgumentException {
+    this(name, height, width, RasterLayout.TILED, compositor);
+  }
+
+  /**
+   * Constructor for a Project.
+   * Creates a {@code Project} using values initialized in the constructor.
+   * @param name the name of the project.
+   * @param height the height of the project.
+   * @param width the width of the project.
+   * @param layout the layout or store the rasters of the images of the project are made with.
+   * @param compositor the compositing engine used to compose the image of the project.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Project(String name, int height, int width, IRasterFactory layout,
+                 TileCompositor compositor) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.name = name;
+    this.height = height;
+    this.width = width;
+    this.layersMap = new HashMap<String, ILayer>();
+    this.layers = new ArrayList<>();
+    this.composites = new ArrayList<>();
+    this.composites.add(layout.create(height, width, Raster.TRANSPARENT)); // sets background
+    this.sharedComposites = new ArrayList<>();
+    this.sharedComposites.add(false);
+    this.composedLayers = new ArrayList<>();
+    this.composedVersions = new ArrayList<>();
+    this.compositor = compositor;
+    this.layout = layout;
+  }
+
+  @Override
+  public void addLayer(String name) throws IllegalArgumentException {
+    if (layersMap.containsKey(name)) {
+      throw new IllegalArgumentException("The provided layer name already exists.");
+    }
+    Layer tmp = new Layer(name, height, width, layout);
+    layersMap.put(name, tmp);
+    layers.add(tmp);
+  }
+
+  @Override
+  public void addImageToLayer(String name, IPixel[][] image, int x, int y)
+          throws IllegalArgumentException {
+    if (!layersMap.containsKey(name)) {
+      throw new IllegalArgumentException("The provided layer name does not exist");
+    }
+    layersMap.get(name).addImage(x, y, image);
+  }
+
+  @Override
+  public void addImageToLayer(String name, IRaster image, int x, int y)
+          throws IllegalArgumentException {
+    if (!layersMap.containsKey(name)) {
+      throw new IllegalArgumentException("The provided layer name does not exist");
+    }
+    layersMap.get(name).addImage(x, y, image);
+  }
+
+  @Override
+  public void setFilter(String name, FilterOptions options) throws IllegalArgumentException {
+    if (!layersMap.containsKey(name)) {
+      throw new IllegalArgumentException("The provided layer name does not exist");
+    }
+    layersMap.get(name).addFilter(options);
+  }
+
+  @Override
+  public IPixel[][] saveImage() {
+    return saveRaster().toPixels();
+  }
+
+  @Override
+  public IRaster saveRaster() {
+    int top = composites.size() - 1;
+    if (top == layers.size() && composites.get(top) == display) {
+      // the raster on screen is written in place, so it is never handed out itself
+      composites.set(top, display.copy());
+      display = null;
+    }
+    compose(null);
+    sharedComposites.set(layers.size(), true);
+    return new ReadOnlyRaster(composites.get(layers.size()));
+  }
+
+  @Override
+  public void renderInto(IRaster target) throws IllegalArgumentException {
+    if (target.getHeight() != height || target.getWidth() != width) {
+      throw new IllegalArgumentException("The raster must have the size of the project");
+    }
+    if (layers.isEmpty()) {
+      target.copyRegion(composites.get(0), 0, 0, height, width);
+      display = null;
+      return;
+    }
+    compose(target);
+    display = target;
+  }
+
+  /**
+   * Composes every region that changed since the last call on every level of the stack.
+   * @param target the raster the top level is composed into, or null to keep the top level
+   *     in a raster of the layout of the project.
+   */
+  private void compose(IRaster target) {
+    Rectangle all = new Rectangle(0, 0, width, height);
+    // a raster on screen only ever holds the top level, so a level below the top which is
+    // still composed into it, since a layer was added above, is given a copy of its own
+    for (int j = 0; j < Math.min(layers.size(), composites.size()); j++) {
+      IRaster c = composites.get(j);
+      if (c == display || c == target) {
+        IRaster copy = layout.create(height, width, Raster.TRANSPARENT);
+        copy.copyRegion(c, 0, 0, height, width);
+        composites.set(j, copy);
+        sharedComposites.set(j, false);
+      }
+    }
+    List<Rectangle> damaged = new ArrayList<>();
+    List<IRaster> sources = new ArrayList<>();
+    List<FilterOptions> filters = new ArrayList<>();
+    List<Rectangle> bounds = new ArrayList<>();
+    List<List<Rectangle>> regions = new ArrayList<>();
+    for (int k = 0; k < layers.size(); k++) {
+      ILayer l = layers.get(k);
+      boolean top = k == layers.size() - 1;
+      if (k >= composedLayers.size() || l != composedLayers.get(k)) {
+        // a layer that was never composed at this level, so the cache above it is useless
+        for (int j = k + 1; j < composites.size(); j++) {
+          IRaster c = composites.get(j);
+          if (!sharedComposites.get(j) && c != display && c != target) {
+            layout.release(c);
+          }
+        }
+        composites.subList(k + 1, composites.size()).clear();
+        sharedComposites.subList(k + 1, sharedComposites.size()).clear();
+        composedLayers.subList(k, composedLayers.size()).clear();
+        composedVersions.subList(k, composedVersions.size()).clear();
+        composites.add(top && target != null ? target
+                : layout.create(height, width, Raster.TRANSPARENT));
+        sharedComposites.add(false);
+        composedLayers.add(l);
+        composedVersions.add(l.getVersion());
+        damaged.clear();
+        damaged.add(all);
+      } else if (l.getVersion() != composedVersions.get(k)) {
+        for (Rectangle r : l.getChangedRegions(composedVersions.get(k))) {
+          addRegion(damaged, r);
+        }
+        composedVersions.set(k, l.getVersion());
+      }
+      if (top && target != null && composites.get(k + 1) != target) {
+        // the target holds none of the composite yet, so all of it is composed into it
+        if (!sharedComposites.get(k + 1) && composites.get(k + 1) != display) {
+          layout.release(composites.get(k + 1));
+        }
+        composites.set(k + 1, target);
+        sharedComposites.set(k + 1, false);
+        damaged.clear();
+        damaged.add(all);
+      }
+      // whatever changed below this layer or on it has to be composed again on this level
+      if (!damaged.isEmpty() && sharedComposites.get(k + 1)) {
+        composites.set(k + 1, composites.get(k + 1).copy());
+        sharedComposites.set(k + 1, false);
+      }
+      sources.add(damaged.isEmpty() ? null : l.getRaster());
+      filters.add(l.getFilter());
+      bounds.add(l.getBounds());
+      regions.add(new ArrayList<>(damaged));
+    }
+    compositor.compose(sources, filters, bounds, composites, regions);
+  }
+
+  @Override
+  public void renderBands(int bandHeight, IBandWriter writer)
+          throws IllegalArgumentException, IOException {
+    if (bandHeight <= 0) {
+      throw new IllegalArgumentException("Invalid value for the band height. Must be positive");
+    }
+    int rows = Math.min(bandHeight, height);
+    IRaster background = new Raster(rows, width, Raster.TRANSPARENT);
+    // every tile is composed up the stack on its own, so the composites of every other layer
+    // can share one raster: a region below a layer is never read again once it is composed
+    IRaster[] bands = {new Raster(rows, width, Raster.TRANSPARENT),
+        new Raster(rows, width, Raster.TRANSPARENT)};
+    for (int top = 0; top < height; top += rows) {
+      int band = Math.min(rows, height - top);
+      List<IRaster> sources = new ArrayList<>();
+      List<FilterOptions> filters = new ArrayList<>();
+      List<Rectangle> bounds = new ArrayList<>();
+      List<IRaster> composites = new ArrayList<>();
+      List<List<Rectangle>> regions = new ArrayList<>();
+      composites.add(background);
+      for (int k = 0; k < layers.size(); k++) {
+        ILayer l = layers.get(k);
+        Rectangle b = l.getBounds();
+        b.translate(0, -top);
+        sources.add(new SubRaster(l.getRaster(), top, 0, band, width));
+        filters.add(l.getFilter());
+        bounds.add(b);
+        composites.add(bands[k % 2]);
+        List<Rectangle> region = new ArrayList<>();
+        region.add(new Rectangle(0, 0, width, band));
+        regions.add(region);
+      }
+      compositor.compose(sources, filters, bounds, composites, regions);
+      IRaster composed = composites.get(layers.size());
+      writer.write(new ReadOnlyRaster(band == rows ? composed
+              : new SubRaster(composed, 0, 0, band, width)), top);
+    }
+  }
+
+  /**
+   * Adds the given region to the list of damaged regions.
+   * Regions inside another region are dropped, and once there are too many regions
+   * they are merged into the one rectangle which covers all of them.
+   * @param regions the damaged regions so far.
+   * @param region the region to be added.
+   */
+  private static void addRegion(List<Rectangle> regions, Rectangle region) {
+    for (Rectangle r : regions) {
+      if (r.contains(region)) {
+        return;
+      }
+    }
+    regions.removeIf(region::contains);
+    regions.add(region);
+    if (regions.size() > MAX_REGIONS) {
+      Rectangle union = new Rectangle(region);
+      for (Rectangle r : regions) {
+        union.add(r);
+      }
+      regions.clear();
+      regions.add(union);
+    }
+  }
+
+  @Override
+  public List<ILayer> getLayers() {
+    return new ArrayList<ILayer>(layers);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public List<String> getLayerNames() {
+    List<String> layerNames = new ArrayList<>();
+    for (ILayer l : layers) {
+      layerNames.add(l.getName());
+    }
+    return layerNames;
+  }
+
+  @Override
+  public void close() {
+    for (ILayer l : layers) {
+      l.close();
+    }
+    for (IRaster composite : composites) {
+      if (composite != display) {
+        layout.release(composite);
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The Raster to be used to store an image.
+ * This class implements the interface IRaster.
+ * The pixels are stored row by row in a single array of ints,
+ * one packed ARGB value per pixel, instead of one Pixel object per pixel.
+ * The Raster class allows to
+ * <li> get and set the packed ARGB value of a pixel </li>
+ * <li> convert to and from a 2D array of pixels </li>
+ * <li> pack and unpack the red, green, blue, and alpha components of a pixel </li>
+ * <li> brighten or darken a packed pixel and find its value, intensity, and luma </li>
+ */
+public class Raster implements IRaster {
+  /**
+   * The packed value of a fully transparent white pixel, used as the empty background.
+   */
+  public static final int TRANSPARENT = 0x00FFFFFF;
+
+  private static final int MAX_VALUE = 255;
+
+  private final int height;
+  private final int width;
+  private final int[] data;
+
+  /**
+   * Constructor for a Raster.
+   * Creates a {@code Raster} where every pixel is fully transparent black.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Raster(int height, int width) throws IllegalArgumentException {
+    this(height, width, 0);
+  }
+
+  /**
+   * Constructor for a Raster.
+   * Creates a {@code Raster} where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public Raster(int height, int width, int fill) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.height = height;
+    this.width = width;
+    this.data = new int[height * width];
+    if (fill != 0) {
+      Arrays.fill(this.data, fill);
+    }
+  }
+
+  /**
+   * Constructor for a Raster.
+   * Creates a {@code Raster} backed by the given array of packed ARGB values,
+   * stored row by row, so the raster and the array always hold the same pixels.
+   * This allows the raster to be composed straight into the data of an image on screen.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param data the array the pixels are stored in.
+   * @throws IllegalArgumentException if the given height or width is not positive,
+   *     or if the array is too short to hold every pixel.
+   */
+  public Raster(int height, int width, int[] data) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    if (data == null || data.length < (long) height * width) {
+      throw new IllegalArgumentException("The array is too short for the given height and width");
+    }
+    this.height = height;
+    this.width = width;
+    this.data = data;
+  }
+
+  /**
+   * Creates a Raster with the same values as the given image.
+   * @param img the image of type IPixel[][] to be converted.
+   * @return a Raster with the packed ARGB values of the given image.
+   */
+  public static Raster fromPixels(IPixel[][] img) {
+    Raster raster = new Raster(img.length, img[0].length);
+    for (int i = 0; i < raster.height; i++) {
+      for (int j = 0; j < raster.width; j++) {
+        IPixel p = img[i][j];
+        raster.data[i * raster.width + j] = pack(p.getR(), p.getG(), p.getB(), p.getA());
+      }
+    }
+    return raster;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    return data[row * width + col];
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    data[row * width + col] = argb;
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    System.arraycopy(data, row * width + col, dst, offset, length);
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    System.arraycopy(src, offset, data, row * width + col, length);
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    int start = row * width + col;
+    for (int i = start; i < start + length; i++) {
+      if (data[i] >>> 24 != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Raster keepChannels(boolean keepRed, boolean keepGreen, boolean keepBlue) {
+    int mask = 0xff000000 | (keepRed ? 0xff0000 : 0) | (keepGreen ? 0xff00 : 0)
+            | (keepBlue ? 0xff : 0);
+    Raster img = new Raster(height, width);
+    for (int i = 0; i < height * width; i++) {
+      img.data[i] = data[i] & mask;
+    }
+    return img;
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = data[row * width + col];
+    return new Pixel(red(argb), green(argb), blue(argb), alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public Raster copy() {
+    Raster copy = new Raster(height, width);
+    System.arraycopy(data, 0, copy.data, 0, height * width);
+    return copy;
+  }
+
+  /**
+   * Packs the given components into a single ARGB value.
+   * @param r the red component of the pixel.
+   * @param g the green component of the pixel.
+   * @param b the blue component of the pixel.
+   * @param a the alpha component of the pixel.
+   * @return an int representing the packed ARGB value.
+   */
+  public static int pack(int r, int g, int b, int a) {
+    return (a << 24) | (r << 16) | (g << 8) | b;
+  }
+
+  /**
+   * Gets the alpha component of a packed ARGB value.
+   * @param argb the packed ARGB value.
+   * @return an int representing the alpha component.
+   */
+  public static int alpha(int argb) {
+    return argb >>> 24;
+  }
+
+  /**
+   * Gets the red component of a packed ARGB value.
+   * @param argb the packed ARGB value.
+   * @return an int representing the red component.
+   */
+  public static int red(int argb) {
+    return (argb >> 16) & 0xff;
+  }
+
+  /**
+   * Gets the green component of a packed ARGB value.
+   * @param argb the packed ARGB value.
+   * @return an int representing the green component.
+   */
+  public static int green(int argb) {
+    return (argb >> 8) & 0xff;
+  }
+
+  /**
+   * Gets the blue component of a packed ARGB value.
+   * @param argb the packed ARGB value.
+   * @return an int representing the blue component.
+   */
+  public static int blue(int argb) {
+    return argb & 0xff;
+  }
+
+  /**
+   * Computes the maximum value of the red, green, and blue components of a packed pixel.
+   * @param argb the packed ARGB value.
+   * @return the maximum value of the rgb components of the pixel.
+   */
+  public static int maxRGB(int argb) {
+    return Math.max(red(argb), Math.max(green(argb), blue(argb)));
+  }
+
+  /**
+   * Computes the average value of the red, green, and blue components of a packed pixel.
+   * @param argb the packed ARGB value.
+   * @return the average value of the rgb components of the pixel.
+   */
+  public static int intensityValue(int argb) {
+    return (red(argb) + green(argb) + blue(argb)) / 3;
+  }
+
+  /**
+   * Computes the luma value of the red, green, and blue components of a packed pixel
+   * by applying the weighted sum formula 0.2126r + 0.7152g + 0.0722b.
+   * @param argb the packed ARGB value.
+   * @return the luma value found from the formula using the rgb components of the pixel.
+   */
+  public static int lumaValue(int argb) {
+    return (int) Math.ceil((.2126 * red(argb)) + (.7152 * green(argb)) + (.0722 * blue(argb)));
+  }
+
+  /**
+   * Brightens a packed pixel by adding the given value to each rgb component.
+   * @param argb the packed ARGB value.
+   * @param value the value to be added to each pixel component.
+   * @return the packed ARGB value of the brightened pixel with the same alpha.
+   */
+  public static int brighten(int argb, int value) {
+    return pack(Math.min(red(argb) + value, MAX_VALUE), Math.min(green(argb) + value, MAX_VALUE),
+            Math.min(blue(argb) + value, MAX_VALUE), alpha(argb));
+  }
+
+  /**
+   * Darkens a packed pixel by subtracting the given value from each rgb component.
+   * @param argb the packed ARGB value.
+   * @param value the value to be subtracted from each pixel component.
+   * @return the packed ARGB value of the darkened pixel with the same alpha.
+   */
+  public static int darken(int argb, int value) {
+    return pack(Math.max(red(argb) - value, 0), Math.max(green(argb) - value, 0),
+            Math.max(blue(argb) - value, 0), alpha(argb));
+  }
+}
@@ -0,0 +1,52 @@
+package model;
+
+/**
+ * The ways a raster can lay out its pixels in memory.
+ * A project chooses one layout and uses it for the images of all of its layers
+ * and for its composed images.
+ * <li> PACKED stores one packed ARGB int per pixel, see {@link Raster} </li>
+ * <li> PLANAR stores the red, green, blue, and alpha components in separate arrays,
+ * see {@link PlanarRaster} </li>
+ * <li> TILED stores packed ARGB ints in tiles which are only made once they are set,
+ * see {@link TiledRaster} </li>
+ * <li> OFF_HEAP stores packed ARGB ints in direct buffers outside of the heap,
+ * see {@link OffHeapRaster} </li>
+ */
+public enum RasterLayout implements IRasterFactory {
+  PACKED,
+  PLANAR,
+  TILED,
+  OFF_HEAP;
+
+  /**
+   * Creates a raster with this layout where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @return a new raster with this layout.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  @Override
+  public IRaster create(int height, int width, int fill) throws IllegalArgumentException {
+    if (this == PLANAR) {
+      return new PlanarRaster(height, width, fill);
+    } else if (this == TILED) {
+      return new TiledRaster(height, width, fill);
+    } else if (this == OFF_HEAP) {
+      return new OffHeapRaster(height, width, fill);
+    }
+    return new Raster(height, width, fill);
+  }
+
+  /**
+   * Closes an off-heap raster, so its buffers can be given back.
+   * Rasters on the heap are left to the garbage collector.
+   * @param raster the raster to be released.
+   */
+  @Override
+  public void release(IRaster raster) {
+    if (raster instanceof OffHeapRaster) {
+      ((OffHeapRaster) raster).close();
+    }
+  }
+}
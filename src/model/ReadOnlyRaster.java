@@ -0,0 +1,131 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only view of a raster.
+ * This class implements the interface IRaster.
+ * It shares storage with the raster it wraps, so handing one out costs no copy.
+ * The owner of the wrapped raster promises never to change it again
+ * and copies it instead before writing, which makes the view an immutable snapshot.
+ * A snapshot of a layer may be held by other layers as their image as well, so it counts
+ * its holders and the wrapped raster is only released once the last of them lets go of it.
+ * The ReadOnlyRaster class allows to
+ * <li> read the packed ARGB values of the wrapped raster </li>
+ * <li> make a mutable copy of the wrapped raster </li>
+ * <li> count the layers holding the snapshot </li>
+ */
+public class ReadOnlyRaster implements IRaster {
+  private final IRaster raster;
+  // the layout or store the wrapped raster is released with, or null if it is not owned
+  private final IRasterFactory owner;
+  private final AtomicInteger holders;
+
+  /**
+   * Constructor for a ReadOnlyRaster.
+   * Creates a {@code ReadOnlyRaster} which reads from the given raster.
+   * @param raster the raster to be viewed.
+   * @throws IllegalArgumentException if the given raster is null.
+   */
+  public ReadOnlyRaster(IRaster raster) throws IllegalArgumentException {
+    if (raster == null) {
+      throw new IllegalArgumentException("The raster is null");
+    }
+    this.raster = raster;
+    this.owner = null;
+    this.holders = new AtomicInteger(1);
+  }
+
+  /**
+   * Constructor for a ReadOnlyRaster.
+   * Creates a {@code ReadOnlyRaster} of a raster made by the given layout or store,
+   * held by the one who made the raster until it lets go of it.
+   * @param raster the raster to be viewed.
+   * @param owner the layout or store the raster is released with.
+   */
+  ReadOnlyRaster(IRaster raster, IRasterFactory owner) {
+    this.raster = raster;
+    this.owner = owner;
+    this.holders = new AtomicInteger(1);
+  }
+
+  /**
+   * Holds the snapshot, so the wrapped raster is kept until this holder lets go of it as well.
+   */
+  void hold() {
+    holders.incrementAndGet();
+  }
+
+  /**
+   * Lets go of the snapshot, releasing the wrapped raster with its owner if it was held last.
+   */
+  void release() {
+    if (holders.decrementAndGet() == 0 && owner != null) {
+      owner.release(raster);
+    }
+  }
+
+  @Override
+  public int getHeight() {
+    return raster.getHeight();
+  }
+
+  @Override
+  public int getWidth() {
+    return raster.getWidth();
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    return raster.getARGB(row, col);
+  }
+
+  /**
+   * A snapshot cannot be changed, so this always throws.
+   * @throws IllegalStateException always.
+   */
+  @Override
+  public void setARGB(int row, int col, int argb) throws IllegalStateException {
+    throw new IllegalStateException("This raster is a read-only snapshot");
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    raster.getRow(row, col, length, dst, offset);
+  }
+
+  /**
+   * A snapshot cannot be changed, so this always throws.
+   * @throws IllegalStateException always.
+   */
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset)
+          throws IllegalStateException {
+    throw new IllegalStateException("This raster is a read-only snapshot");
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    return raster.isClear(row, col, length);
+  }
+
+  @Override
+  public IRaster keepChannels(boolean keepRed, boolean keepGreen, boolean keepBlue) {
+    return new ReadOnlyRaster(raster.keepChannels(keepRed, keepGreen, keepBlue));
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    return raster.getPixel(row, col);
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    return raster.toPixels();
+  }
+
+  @Override
+  public IRaster copy() {
+    return raster.copy();
+  }
+}
@@ -0,0 +1,104 @@
+package model;
+
+/**
+ * A rectangular region of another raster.
+ * This class implements the interface IRaster.
+ * It shares storage with the raster it is a region of,
+ * so reading or writing a pixel of the region reads or writes that raster.
+ * Row 0 and column 0 of the region are the given row and column of the raster.
+ * The SubRaster class allows to
+ * <li> read and write the packed ARGB values of a region of a raster </li>
+ * <li> copy the region into a raster of its own </li>
+ */
+public class SubRaster implements IRaster {
+  private final IRaster raster;
+  private final int row;
+  private final int col;
+  private final int height;
+  private final int width;
+
+  /**
+   * Constructor for a SubRaster.
+   * Creates a {@code SubRaster} of the given region of the given raster.
+   * @param raster the raster which holds the region.
+   * @param row the row of the raster where the region starts.
+   * @param col the column of the raster where the region starts.
+   * @param height the height of the region.
+   * @param width the width of the region.
+   * @throws IllegalArgumentException if the region is empty or not inside the raster.
+   */
+  public SubRaster(IRaster raster, int row, int col, int height, int width)
+          throws IllegalArgumentException {
+    if (height <= 0 || width <= 0 || row < 0 || col < 0
+            || row + height > raster.getHeight() || col + width > raster.getWidth()) {
+      throw new IllegalArgumentException("The region must be a non-empty part of the raster");
+    }
+    this.raster = raster;
+    this.row = row;
+    this.col = col;
+    this.height = height;
+    this.width = width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    return raster.getARGB(this.row + row, this.col + col);
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    raster.setARGB(this.row + row, this.col + col, argb);
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    raster.getRow(this.row + row, this.col + col, length, dst, offset);
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    raster.setRow(this.row + row, this.col + col, length, src, offset);
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    return raster.isClear(this.row + row, this.col + col, length);
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    return raster.getPixel(this.row + row, this.col + col);
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new IPixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public IRaster copy() {
+    IRaster copy = new Raster(height, width);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        copy.setARGB(i, j, getARGB(i, j));
+      }
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,375 @@
+package model;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.filters.FilterExecution;
+import model.filters.FilterOptions;
+import model.filters.PixelFilter;
+
+/**
+ * The compositing engine which places the layers of a project over each other.
+ * The canvas is split into square tiles and every tile runs the whole stack of layers,
+ * filter and then alpha-over, on its own, so tiles are composed in parallel on a ForkJoinPool.
+ * Every pixel is only ever composed from the pixels at the same place below it,
+ * so the result is the same as composing the whole canvas one layer at a time.
+ * The TileCompositor class allows to
+ * <li> compose regions of a stack of layers into their composites </li>
+ * <li> place one pixel over another using its alpha value </li>
+ */
+public class TileCompositor {
+  /**
+   * The default width and height of a tile.
+   */
+  public static final int DEFAULT_TILE_SIZE = 128;
+
+  // the composed alpha value of every pair of alpha values, indexed by a * 256 + ab,
+  // and every component placed over a clear pixel, indexed by a * 256 + c
+  private static final byte[] ALPHA = new byte[256 * 256];
+  private static final byte[] CLEAR = new byte[256 * 256];
+
+  static {
+    for (int a = 0; a < 256; a++) {
+      for (int i = 0; i < 256; i++) {
+        double com = i / 255.0 * (1 - (a / 255.0));
+        double fA = (a / 255.0 + com) * 255;
+        ALPHA[(a << 8) | i] = (byte) Math.min((int) Math.ceil(fA), 255);
+        CLEAR[(a << 8) | i] = (byte) (a == 0 ? 0 : overDouble(a, 0, i, 0));
+      }
+    }
+  }
+
+  private final ForkJoinPool pool;
+  private final int tileSize;
+
+  /**
+   * Constructor for a TileCompositor.
+   * Creates a {@code TileCompositor} which uses the common pool and the default tile size.
+   */
+  public TileCompositor() {
+    this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Constructor for a TileCompositor.
+   * Creates a {@code TileCompositor} using values initialized in the constructor.
+   * @param pool the pool the tiles are composed on.
+   * @param tileSize the width and height of a tile.
+   * @throws IllegalArgumentException if the pool is null or the tile size is not positive.
+   */
+  public TileCompositor(ForkJoinPool pool, int tileSize) throws IllegalArgumentException {
+    if (pool == null || tileSize <= 0) {
+      throw new IllegalArgumentException("The pool is null or the tile size is not positive");
+    }
+    this.pool = pool;
+    this.tileSize = tileSize;
+  }
+
+  /**
+   * Composes the given regions of a stack of layers.
+   * For every layer k the pixels of composites.get(k + 1) inside regions.get(k) are set to
+   * the filtered layer placed over composites.get(k), working up from the bottom layer.
+   * The regions of a layer must cover the regions of the layer below it.
+   * Outside the bounds of a layer with a per-pixel filter the composite below is copied.
+   * @param sources the raster of every layer, which may be null for a layer with no regions.
+   * @param filters the filter of every layer.
+   * @param bounds the bounds of the content of every layer, outside which it is transparent.
+   * @param composites the composite below every layer followed by the composite of all layers.
+   * @param regions the regions of every layer to be composed, where x is the column.
+   */
+  public void compose(List<IRaster> sources, List<FilterOptions> filters, List<Rectangle> bounds,
+                      List<IRaster> composites, List<List<Rectangle>> regions) {
+    if (regions.isEmpty()) {
+      return;
+    }
+    // the regions of the top layer cover every region below it
+    Set<Rectangle> covered = new LinkedHashSet<>();
+    for (Rectangle r : regions.get(regions.size() - 1)) {
+      for (int row = r.y / tileSize * tileSize; row < r.y + r.height; row += tileSize) {
+        for (int col = r.x / tileSize * tileSize; col < r.x + r.width; col += tileSize) {
+          covered.add(new Rectangle(col, row, tileSize, tileSize));
+        }
+      }
+    }
+    if (covered.isEmpty()) {
+      return;
+    }
+    List<Rectangle> tiles = new ArrayList<>(covered);
+    TileTask task = new TileTask(new Stack(sources, filters, bounds, composites, regions), tiles,
+            0, tiles.size());
+    if (tiles.size() == 1) {
+      task.compute();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  /**
+   * Composes every layer of the stack inside one tile.
+   * @param stack the layers to be composed.
+   * @param tile the tile to be composed.
+   */
+  private static void composeTile(Stack stack, Rectangle tile) {
+    for (int k = 0; k < stack.regions.size(); k++) {
+      IRaster below = stack.composites.get(k);
+      IRaster composed = stack.composites.get(k + 1);
+      for (Rectangle r : stack.regions.get(k)) {
+        Rectangle part = r.intersection(tile);
+        if (part.isEmpty()) {
+          continue;
+        }
+        if (!(stack.filters.get(k) instanceof PixelFilter)) {
+          composeRegion(stack.sources.get(k), stack.filters.get(k), below, composed, part);
+          continue;
+        }
+        // a per-pixel filter keeps the transparent pixels outside the bounds transparent
+        Rectangle inside = part.intersection(stack.bounds.get(k));
+        for (Rectangle outside : subtract(part, inside)) {
+          composed.copyRegion(below, outside.y, outside.x, outside.height, outside.width);
+        }
+        if (!inside.isEmpty()) {
+          composeRegion(stack.sources.get(k), stack.filters.get(k), below, composed, inside);
+        }
+      }
+    }
+  }
+
+  /**
+   * Splits the part of a region which lies outside of a smaller region into rectangles.
+   * @param region the region.
+   * @param inner the part of the region to be left out, which may be empty.
+   * @return the rectangles which together cover the region without the inner region.
+   */
+  private static List<Rectangle> subtract(Rectangle region, Rectangle inner) {
+    List<Rectangle> parts = new ArrayList<>();
+    if (inner.isEmpty()) {
+      parts.add(region);
+      return parts;
+    }
+    parts.add(new Rectangle(region.x, region.y, region.width, inner.y - region.y));
+    parts.add(new Rectangle(region.x, inner.y + inner.height, region.width,
+            region.y + region.height - inner.y - inner.height));
+    parts.add(new Rectangle(region.x, inner.y, inner.x - region.x, inner.height));
+    parts.add(new Rectangle(inner.x + inner.width, inner.y,
+            region.x + region.width - inner.x - inner.width, inner.height));
+    parts.removeIf(Rectangle::isEmpty);
+    return parts;
+  }
+
+  /**
+   * Composes the given region of a layer with its filter over the composite below it,
+   * writing the result into the composite which includes the layer.
+   * A per-pixel filter is fused into the pass which places the layer over the composite.
+   * @param source the raster of the layer.
+   * @param filter the filter of the layer.
+   * @param below the composite below the layer, which is only read.
+   * @param composed the composite including the layer, which is written.
+   * @param region the region to be composed, where x is the column and y is the row.
+   */
+  private static void composeRegion(IRaster source, FilterOptions filter, IRaster below,
+                                    IRaster composed, Rectangle region) {
+    if (filter instanceof PixelFilter && isClear(source, region)) {
+      // a clear layer keeps its alpha of 0 through the filter, leaving the composite below
+      composed.copyRegion(below, region.y, region.x, region.height, region.width);
+      return;
+    }
+    if (filter instanceof PixelFilter && FilterExecution.isRowKernels()) {
+      // filter and place a row at a time in arrays, in loops the JIT compiler can vectorize
+      PixelFilter kernel = (PixelFilter) filter;
+      int[] row = new int[region.width];
+      int[] under = new int[region.width];
+      for (int i = region.y; i < region.y + region.height; i++) {
+        below.getRow(i, region.x, region.width, under, 0);
+        if (source.isClear(i, region.x, region.width)) {
+          // a clear run keeps its alpha of 0 through the filter, leaving the pixels below
+          composed.setRow(i, region.x, region.width, under, 0);
+          continue;
+        }
+        source.getRow(i, region.x, region.width, row, 0);
+        kernel.filterRow(row, under, region.width);
+        overRow(under, row, region.width);
+        composed.setRow(i, region.x, region.width, row, 0);
+      }
+      return;
+    }
+    if (filter instanceof PixelFilter) {
+      // read, filter, and place each pixel in one pass without building the filtered image
+      PixelFilter kernel = (PixelFilter) filter;
+      int under;
+      for (int row = region.y; row < region.y + region.height; row++) {
+        for (int col = region.x; col < region.x + region.width; col++) {
+          under = below.getARGB(row, col);
+          composed.setARGB(row, col, over(under, kernel.filterPixel(source.getARGB(row, col),
+                  under)));
+        }
+      }
+      return;
+    }
+    IRaster under = new SubRaster(below, region.y, region.x, region.height, region.width);
+    IRaster img = filter.apply(new SubRaster(source, region.y, region.x,
+            region.height, region.width), under);
+    for (int i = 0; i < region.height; i++) {
+      for (int j = 0; j < region.width; j++) {
+        composed.setARGB(region.y + i, region.x + j, over(under.getARGB(i, j),
+                img.getARGB(i, j)));
+      }
+    }
+  }
+
+  /**
+   * Tells if every pixel of the given region of a raster is fully transparent.
+   * @param raster the raster.
+   * @param region the region, where x is the column and y is the row.
+   * @return true if the alpha value of every pixel of the region is 0.
+   */
+  private static boolean isClear(IRaster raster, Rectangle region) {
+    for (int row = region.y; row < region.y + region.height; row++) {
+      if (!raster.isClear(row, region.x, region.width)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Places the given pixel over the composed pixel below it using its alpha value.
+   * Each component is ceil(N / D) for N = 255 * a * c + ab * (255 - a) * cb
+   * and D = 255 * a + ab * (255 - a), found with integer division.
+   * The double arithmetic of the original formula is off by far less than 1 / D,
+   * so it rounds to the same component unless N / D is a whole number,
+   * which is the only case left to the double arithmetic.
+   * The result is exactly the one the double arithmetic gives for every pair of pixels.
+   * @param below the packed ARGB value of the composed pixel.
+   * @param argb the packed ARGB value of the pixel placed on top.
+   * @return the packed ARGB value of the composed pixel.
+   */
+  public static int over(int below, int argb) {
+    int a = argb >>> 24;
+    if (a == 255) {
+      return argb;
+    } else if (a == 0) {
+      return below;
+    }
+    int ab = below >>> 24;
+    int alpha = ALPHA[(a << 8) | ab] & 0xff;
+    int red;
+    int green;
+    int blue;
+    if (ab == 0) {
+      // over a clear pixel every component is scaled by the alpha and back again
+      red = CLEAR[(a << 8) | ((argb >> 16) & 0xff)] & 0xff;
+      green = CLEAR[(a << 8) | ((argb >> 8) & 0xff)] & 0xff;
+      blue = CLEAR[(a << 8) | (argb & 0xff)] & 0xff;
+    } else {
+      int top = 255 * a;
+      int weight = ab * (255 - a);
+      red = overComponent(a, ab, (argb >> 16) & 0xff, (below >> 16) & 0xff, top, weight);
+      green = overComponent(a, ab, (argb >> 8) & 0xff, (below >> 8) & 0xff, top, weight);
+      blue = overComponent(a, ab, argb & 0xff, below & 0xff, top, weight);
+    }
+    return (alpha << 24) | (red << 16) | (green << 8) | blue;
+  }
+
+  /**
+   * Places a run of pixels over the run of composed pixels below it.
+   * @param below the packed ARGB values of the composed pixels.
+   * @param row the packed ARGB values of the pixels placed on top,
+   *            which are replaced by the packed ARGB values of the composed pixels.
+   * @param length the number of pixels in the run.
+   */
+  public static void overRow(int[] below, int[] row, int length) {
+    for (int i = 0; i < length; i++) {
+      row[i] = over(below[i], row[i]);
+    }
+  }
+
+  /**
+   * Places one component of a pixel over the component of the composed pixel below it.
+   * @param a the alpha value of the pixel, from 1 to 254.
+   * @param ab the alpha value of the composed pixel.
+   * @param c the component of the pixel.
+   * @param cb the component of the composed pixel.
+   * @param top 255 times the alpha value of the pixel.
+   * @param weight the weight of the composed pixel, ab * (255 - a).
+   * @return the component of the composed pixel.
+   */
+  private static int overComponent(int a, int ab, int c, int cb, int top, int weight) {
+    int total = top + weight;
+    int n = top * c + weight * cb;
+    int q = n / total;
+    if (q * total != n) {
+      return q + 1;
+    }
+    return n == 0 ? 0 : overDouble(a, ab, c, cb);
+  }
+
+  /**
+   * Places one component of a pixel over the component of the composed pixel below it
+   * using the original double arithmetic.
+   * Rounding can push a component one past the maximum value, so it is capped at 255.
+   * @param a the alpha value of the pixel.
+   * @param ab the alpha value of the composed pixel.
+   * @param c the component of the pixel.
+   * @param cb the component of the composed pixel.
+   * @return the component of the composed pixel.
+   */
+  private static int overDouble(int a, int ab, int c, int cb) {
+    double com = ab / 255.0 * (1 - (a / 255.0));
+    double fA = a / 255.0 + com;
+    return Math.min((int) Math.ceil(((a / 255.0 * c + cb * com) * (1.0 / fA))), 255);
+  }
+
+  /**
+   * The layers of a stack to be composed, with everything known about each of them.
+   */
+  private static class Stack {
+    private final List<IRaster> sources;
+    private final List<FilterOptions> filters;
+    private final List<Rectangle> bounds;
+    private final List<IRaster> composites;
+    private final List<List<Rectangle>> regions;
+
+    Stack(List<IRaster> sources, List<FilterOptions> filters, List<Rectangle> bounds,
+          List<IRaster> composites, List<List<Rectangle>> regions) {
+      this.sources = sources;
+      this.filters = filters;
+      this.bounds = bounds;
+      this.composites = composites;
+      this.regions = regions;
+    }
+  }
+
+  /**
+   * Composes a range of tiles, splitting it in half until only one tile is left.
+   */
+  private static class TileTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Stack stack;
+    private final List<Rectangle> tiles;
+    private final int from;
+    private final int to;
+
+    TileTask(Stack stack, List<Rectangle> tiles, int from, int to) {
+      this.stack = stack;
+      this.tiles = tiles;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        composeTile(stack, tiles.get(from));
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new TileTask(stack, tiles, from, mid), new TileTask(stack, tiles, mid, to));
+    }
+  }
+}
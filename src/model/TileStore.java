@@ -0,0 +1,282 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The TileStore to be used to keep the images of a project on disk.
+ * This class implements the interface IRasterFactory.
+ * The rasters made by a store are {@link MappedRaster}s whose tiles live in slots of
+ * one scratch file. A tile is mapped into memory when it is read or written, and only
+ * the recently used tiles, up to the resident budget of the store, stay mapped,
+ * so a project can hold and compose far more pixels than fit in the heap.
+ * A tile which is already mapped is found without taking a lock, so many threads may read
+ * and write the tiles of a store at once, and only mapping a tile takes the lock of the store.
+ * A tile is held while it is used, and a tile dropped from the budget is unmapped right away,
+ * or once the last thread holding it lets go of it.
+ * The slots of a raster are given back when it is closed or collected, and the scratch file
+ * is deleted once the store is closed.
+ * The TileStore class allows to
+ * <li> make rasters whose tiles are kept in the scratch file </li>
+ * <li> map and hold a tile, dropping one which was not used lately </li>
+ * <li> count the tiles which are mapped and the tiles which are stored </li>
+ */
+public class TileStore implements IRasterFactory, AutoCloseable {
+  /**
+   * The width and height of a tile.
+   */
+  public static final int TILE_SIZE = 64;
+
+  private static final int TILE_PIXELS = TILE_SIZE * TILE_SIZE;
+  private static final long TILE_BYTES = (long) TILE_PIXELS * Integer.BYTES;
+
+  private final FileChannel channel;
+  private final int residentTiles;
+  // the mapped tiles by their slots, which are found without a lock
+  private final Map<Integer, Tile> resident;
+  // the mapped tiles in the order the clock hand passes them, only used under the lock
+  private final Deque<Tile> clock;
+  private final Deque<Integer> free;
+  private int next;
+  private volatile boolean closed;
+
+  /**
+   * Constructor for a TileStore.
+   * Creates a {@code TileStore} with a new scratch file in the temporary directory.
+   * @param residentTiles the most tiles which stay mapped into memory at once.
+   * @throws IllegalArgumentException if the given budget is not positive.
+   * @throws IOException if the scratch file cannot be made.
+   */
+  public TileStore(int residentTiles) throws IllegalArgumentException, IOException {
+    if (residentTiles <= 0) {
+      throw new IllegalArgumentException("Invalid value for the resident tiles. " +
+              "Must be positive");
+    }
+    Path file = Files.createTempFile("collage", ".tiles");
+    this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE);
+    this.residentTiles = residentTiles;
+    this.resident = new ConcurrentHashMap<>();
+    this.clock = new ArrayDeque<>();
+    this.free = new ArrayDeque<>();
+    this.next = 0;
+    this.closed = false;
+  }
+
+  @Override
+  public MappedRaster create(int height, int width, int fill) throws IllegalArgumentException {
+    return new MappedRaster(this, height, width, fill);
+  }
+
+  @Override
+  public void release(IRaster raster) {
+    if (raster instanceof MappedRaster) {
+      ((MappedRaster) raster).close();
+    }
+  }
+
+  /**
+   * Takes a slot of the scratch file for a new tile where every pixel has the given value.
+   * @param fill the packed ARGB value of every pixel of the tile.
+   * @return the slot of the tile.
+   * @throws IllegalStateException if the store has been closed.
+   */
+  int allocate(int fill) throws IllegalStateException {
+    boolean reused;
+    int slot;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The tile store has been closed.");
+      }
+      reused = !free.isEmpty();
+      slot = reused ? free.pop() : next++;
+    }
+    // a new slot past the end of the file reads as zero
+    if (reused || fill != 0) {
+      int[] run = new int[TILE_PIXELS];
+      Arrays.fill(run, fill);
+      try (Tile tile = tile(slot)) {
+        tile.pixels().put(0, run);
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * Gives back the slot of a tile which is no longer used.
+   * @param slot the slot of the tile.
+   */
+  synchronized void free(int slot) {
+    if (!closed) {
+      free.push(slot);
+    }
+  }
+
+  /**
+   * Holds the tile in the given slot, mapping it into memory if it is not mapped yet.
+   * The tile stays mapped until it is closed, so it must be closed once it has been used.
+   * @param slot the slot of the tile.
+   * @return the held tile.
+   * @throws IllegalStateException if the store has been closed.
+   * @throws UncheckedIOException if the tile cannot be mapped.
+   */
+  Tile tile(int slot) throws IllegalStateException {
+    Tile tile = resident.get(slot);
+    if (tile != null && tile.hold()) {
+      return tile;
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The tile store has been closed.");
+      }
+      tile = resident.get(slot);
+      if (tile != null && tile.hold()) {
+        return tile;
+      }
+      MappedByteBuffer mapping;
+      try {
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, slot * TILE_BYTES, TILE_BYTES);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      tile = new Tile(slot, mapping);
+      tile.hold();
+      while (resident.size() >= residentTiles) {
+        evict();
+      }
+      resident.put(slot, tile);
+      clock.add(tile);
+      return tile;
+    }
+  }
+
+  /**
+   * Drops the tile the clock hand stops at from the budget, passing over each tile which was
+   * used since the hand last passed it, but never going around more than twice.
+   */
+  private void evict() {
+    Tile tile = clock.poll();
+    for (int passed = 2 * clock.size(); tile.used && passed > 0; passed--) {
+      tile.used = false;
+      clock.add(tile);
+      tile = clock.poll();
+    }
+    resident.remove(tile.slot, tile);
+    tile.unmap();
+  }
+
+  /**
+   * Counts the tiles which are mapped into memory.
+   * @return the number of mapped tiles, which is never more than the resident budget.
+   */
+  public int getResidentCount() {
+    return resident.size();
+  }
+
+  /**
+   * Counts the tiles which are stored for rasters that have not been released.
+   * @return the number of slots of the scratch file which are in use.
+   */
+  public synchronized int getTileCount() {
+    return next - free.size();
+  }
+
+  /**
+   * Closes the store and deletes its scratch file.
+   * The rasters made by the store can no longer be read once it is closed.
+   * @throws IOException if the scratch file cannot be closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      for (Tile tile : clock) {
+        tile.unmap();
+      }
+      resident.clear();
+      clock.clear();
+      free.clear();
+      channel.close();
+    }
+  }
+
+  /**
+   * A tile mapped into memory, which stays mapped while it is held.
+   * A tile dropped from the budget is unmapped by whoever lets go of it last.
+   */
+  static final class Tile implements AutoCloseable {
+    private final int slot;
+    private final MappedByteBuffer mapping;
+    private final IntBuffer pixels;
+    // the threads holding the tile
+    private final AtomicInteger holds;
+    // set when the tile is used, and cleared when the clock hand passes it
+    private volatile boolean used;
+    private volatile boolean dropped;
+
+    private Tile(int slot, MappedByteBuffer mapping) {
+      this.slot = slot;
+      this.mapping = mapping;
+      this.pixels = mapping.order(ByteOrder.nativeOrder()).asIntBuffer();
+      this.holds = new AtomicInteger();
+      this.used = true;
+      this.dropped = false;
+    }
+
+    /**
+     * Gets the packed ARGB values of the tile, row by row.
+     * @return the pixels of the tile, which may only be used while the tile is held.
+     */
+    IntBuffer pixels() {
+      return pixels;
+    }
+
+    /**
+     * Holds the tile, unless it has been dropped from the budget.
+     */
+    private boolean hold() {
+      holds.incrementAndGet();
+      if (dropped) {
+        close();
+        return false;
+      }
+      if (!used) {
+        used = true;
+      }
+      return true;
+    }
+
+    /**
+     * Drops the tile from the budget, unmapping it unless it is still held.
+     */
+    private void unmap() {
+      dropped = true;
+      if (holds.get() == 0) {
+        DirectBuffers.free(mapping);
+      }
+    }
+
+    /**
+     * Lets go of the tile.
+     */
+    @Override
+    public void close() {
+      if (holds.decrementAndGet() == 0 && dropped) {
+        DirectBuffers.free(mapping);
+      }
+    }
+  }
+}
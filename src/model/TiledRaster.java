@@ -0,0 +1,256 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The TiledRaster to be used to store a mostly empty image.
+ * This class implements the interface IRaster.
+ * The image is split into square tiles of packed ARGB values and a tile is only made
+ * the first time one of its pixels is set, so every untouched tile costs nothing and
+ * reads as the fill value of the raster.
+ * Tiles are shared between copies of a raster and copied the first time
+ * a copy writes to one, so copying a raster only copies its grid of tiles.
+ * A tile is only ever replaced while holding the lock of the raster, so different threads
+ * may write different pixels of the raster at the same time.
+ * The TiledRaster class allows to
+ * <li> get and set the packed ARGB value of a pixel or of a run of pixels </li>
+ * <li> tell if a run of pixels is fully transparent without reading untouched tiles </li>
+ * <li> copy a region of another tiled raster by sharing its tiles </li>
+ */
+public class TiledRaster implements IRaster {
+  /**
+   * The width and height of a tile.
+   */
+  public static final int TILE_SIZE = 64;
+
+  private static final int SHIFT = 6;
+  private static final int MASK = TILE_SIZE - 1;
+
+  private final int height;
+  private final int width;
+  private final int fill;
+  private final int columns;
+  // null for a tile which was never set and only holds the fill value
+  private final AtomicReferenceArray<int[]> tiles;
+  // true for a tile which no other raster shares, so it can be written in place
+  private final boolean[] owned;
+
+  /**
+   * Constructor for a TiledRaster.
+   * Creates a {@code TiledRaster} where every pixel has the given packed ARGB value.
+   * @param height the height of the raster.
+   * @param width the width of the raster.
+   * @param fill the packed ARGB value of every pixel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  public TiledRaster(int height, int width, int fill) throws IllegalArgumentException {
+    if (height <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Invalid value for height or width. " +
+              "Must both be positive");
+    }
+    this.height = height;
+    this.width = width;
+    this.fill = fill;
+    this.columns = (width + MASK) >> SHIFT;
+    int count = columns * ((height + MASK) >> SHIFT);
+    this.tiles = new AtomicReferenceArray<>(count);
+    this.owned = new boolean[count];
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Counts the tiles which have been made, the rest only hold the fill value.
+   * @return the number of tiles which have been made.
+   */
+  public int getTileCount() {
+    int count = 0;
+    for (int i = 0; i < tiles.length(); i++) {
+      if (tiles.get(i) != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int getARGB(int row, int col) {
+    int[] tile = tiles.get((row >> SHIFT) * columns + (col >> SHIFT));
+    return tile == null ? fill : tile[((row & MASK) << SHIFT) | (col & MASK)];
+  }
+
+  @Override
+  public void setARGB(int row, int col, int argb) {
+    writable((row >> SHIFT) * columns + (col >> SHIFT))[((row & MASK) << SHIFT) | (col & MASK)]
+            = argb;
+  }
+
+  @Override
+  public void getRow(int row, int col, int length, int[] dst, int offset) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TILE_SIZE - (j & MASK), col + length - j);
+      int[] tile = tiles.get(first + (j >> SHIFT));
+      if (tile == null) {
+        Arrays.fill(dst, offset + j - col, offset + j - col + span, fill);
+      } else {
+        System.arraycopy(tile, start | (j & MASK), dst, offset + j - col, span);
+      }
+      j += span;
+    }
+  }
+
+  @Override
+  public void setRow(int row, int col, int length, int[] src, int offset) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TILE_SIZE - (j & MASK), col + length - j);
+      System.arraycopy(src, offset + j - col, writable(first + (j >> SHIFT)), start | (j & MASK),
+              span);
+      j += span;
+    }
+  }
+
+  @Override
+  public boolean isClear(int row, int col, int length) {
+    int first = (row >> SHIFT) * columns;
+    int start = (row & MASK) << SHIFT;
+    for (int j = col; j < col + length; ) {
+      int span = Math.min(TILE_SIZE - (j & MASK), col + length - j);
+      int[] tile = tiles.get(first + (j >> SHIFT));
+      if (tile == null) {
+        if (fill >>> 24 != 0) {
+          return false;
+        }
+      } else {
+        for (int i = start | (j & MASK); i < (start | (j & MASK)) + span; i++) {
+          if (tile[i] >>> 24 != 0) {
+            return false;
+          }
+        }
+      }
+      j += span;
+    }
+    return true;
+  }
+
+  /**
+   * Copies the given region of another raster into the same region of this raster.
+   * The tiles of another tiled raster which lie inside the region are shared
+   * instead of copied, and both rasters copy a shared tile before writing to it.
+   * @param from the raster to be copied from.
+   * @param row the row where the region starts.
+   * @param col the column where the region starts.
+   * @param height the height of the region.
+   * @param width the width of the region.
+   */
+  @Override
+  public void copyRegion(IRaster from, int row, int col, int height, int width) {
+    if (!(from instanceof TiledRaster)) {
+      IRaster.super.copyRegion(from, row, col, height, width);
+      return;
+    }
+    TiledRaster other = (TiledRaster) from;
+    for (int top = row; top < row + height; ) {
+      int rows = Math.min(TILE_SIZE - (top & MASK), row + height - top);
+      for (int left = col; left < col + width; ) {
+        int cols = Math.min(TILE_SIZE - (left & MASK), col + width - left);
+        int index = (top >> SHIFT) * columns + (left >> SHIFT);
+        int[] tile = other.tiles.get(index);
+        boolean whole = rows == TILE_SIZE && cols == TILE_SIZE;
+        if (whole && (tile != null || other.fill == fill)) {
+          if (tile != null) {
+            other.share(index);
+          }
+          synchronized (this) {
+            tiles.set(index, tile);
+            owned[index] = false;
+          }
+        } else {
+          int[] run = new int[cols];
+          for (int i = top; i < top + rows; i++) {
+            other.getRow(i, left, cols, run, 0);
+            setRow(i, left, cols, run, 0);
+          }
+        }
+        left += cols;
+      }
+      top += rows;
+    }
+  }
+
+  /**
+   * Gets a tile which this raster may write to,
+   * making it from the fill value or copying it from a shared tile first if needed.
+   * @param index the index of the tile.
+   * @return the tile.
+   */
+  private int[] writable(int index) {
+    if (owned[index]) {
+      return tiles.get(index);
+    }
+    synchronized (this) {
+      if (!owned[index]) {
+        int[] tile = tiles.get(index);
+        if (tile == null) {
+          tile = new int[TILE_SIZE * TILE_SIZE];
+          if (fill != 0) {
+            Arrays.fill(tile, fill);
+          }
+        } else {
+          tile = tile.clone();
+        }
+        tiles.set(index, tile);
+        owned[index] = true;
+      }
+      return tiles.get(index);
+    }
+  }
+
+  /**
+   * Marks a tile as shared with another raster, so it is copied before it is written again.
+   * @param index the index of the tile.
+   */
+  private synchronized void share(int index) {
+    owned[index] = false;
+  }
+
+  @Override
+  public IPixel getPixel(int row, int col) {
+    int argb = getARGB(row, col);
+    return new Pixel(Raster.red(argb), Raster.green(argb), Raster.blue(argb),
+            Raster.alpha(argb));
+  }
+
+  @Override
+  public IPixel[][] toPixels() {
+    IPixel[][] img = new Pixel[height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        img[i][j] = getPixel(i, j);
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public synchronized TiledRaster copy() {
+    TiledRaster copy = new TiledRaster(height, width, fill);
+    for (int i = 0; i < tiles.length(); i++) {
+      copy.tiles.set(i, tiles.get(i));
+      owned[i] = false;
+    }
+    return copy;
+  }
+}
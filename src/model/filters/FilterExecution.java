@@ -0,0 +1,165 @@
+package model.filters;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class decides how the filter options walk the rows of a raster.
+ * Every filter computes each row of its result from the same row of its inputs only,
+ * so the rows of a large raster are split into bands which are filtered in parallel
+ * on a ForkJoinPool. A raster with fewer pixels than the threshold is filtered
+ * on the calling thread, where starting tasks would cost more than they save.
+ * The FilterExecution class allows to
+ * <li> turn the parallel execution mode on or off </li>
+ * <li> choose between the row kernels and the per-pixel kernels of the filters </li>
+ * <li> set the number of pixels below which a raster is filtered sequentially </li>
+ * <li> set the pool the rows are filtered on </li>
+ * <li> run an action for every row of a raster </li>
+ */
+public final class FilterExecution {
+  /**
+   * The default number of pixels below which a raster is filtered sequentially.
+   */
+  public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+  private static volatile boolean parallel = true;
+  private static volatile boolean rowKernels = true;
+  private static volatile int threshold = DEFAULT_THRESHOLD;
+  private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  private FilterExecution() {
+    // only static methods
+  }
+
+  /**
+   * The work done for one row of a raster.
+   */
+  public interface RowAction {
+    /**
+     * Filters the given row.
+     * @param row the row to be filtered.
+     */
+    void apply(int row);
+  }
+
+  /**
+   * Turns the parallel execution mode on or off.
+   * @param on true if large rasters should be filtered in parallel.
+   */
+  public static void setParallel(boolean on) {
+    parallel = on;
+  }
+
+  /**
+   * Tells if the parallel execution mode is on.
+   * @return true if large rasters are filtered in parallel.
+   */
+  public static boolean isParallel() {
+    return parallel;
+  }
+
+  /**
+   * Chooses between the row kernels and the per-pixel kernels of the filters.
+   * The row kernels filter a run of pixels copied out of a raster into an array,
+   * in loops which the JIT compiler can vectorize where the processor supports it.
+   * The per-pixel kernels read and write the raster one pixel at a time.
+   * Both give exactly the same result.
+   * @param on true if the row kernels should be used.
+   */
+  public static void setRowKernels(boolean on) {
+    rowKernels = on;
+  }
+
+  /**
+   * Tells if the row kernels of the filters are used.
+   * @return true if the row kernels are used.
+   */
+  public static boolean isRowKernels() {
+    return rowKernels;
+  }
+
+  /**
+   * Sets the number of pixels below which a raster is filtered sequentially.
+   * @param pixels the number of pixels.
+   * @throws IllegalArgumentException if the given number is negative.
+   */
+  public static void setThreshold(int pixels) throws IllegalArgumentException {
+    if (pixels < 0) {
+      throw new IllegalArgumentException("The threshold cannot be negative");
+    }
+    threshold = pixels;
+  }
+
+  /**
+   * Gets the number of pixels below which a raster is filtered sequentially.
+   * @return the number of pixels.
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the pool the rows of large rasters are filtered on.
+   * @param rowPool the pool.
+   * @throws IllegalArgumentException if the given pool is null.
+   */
+  public static void setPool(ForkJoinPool rowPool) throws IllegalArgumentException {
+    if (rowPool == null) {
+      throw new IllegalArgumentException("The pool is null");
+    }
+    pool = rowPool;
+  }
+
+  /**
+   * Runs the given action once for every row of a raster with the given size.
+   * Rows may be run at the same time on different threads, in any order,
+   * so the action must only write the row it is given.
+   * @param height the number of rows.
+   * @param width the number of pixels in a row.
+   * @param action the action run for every row.
+   */
+  public static void forEachRow(int height, int width, RowAction action) {
+    ForkJoinPool rowPool = pool;
+    if (!parallel || height < 2 || rowPool.getParallelism() < 2
+            || (long) height * width < threshold) {
+      for (int row = 0; row < height; row++) {
+        action.apply(row);
+      }
+      return;
+    }
+    // a few bands for every thread so a slow band does not hold up the rest
+    int band = Math.max(1, height / (rowPool.getParallelism() * 4));
+    rowPool.invoke(new RowTask(action, 0, height, band));
+  }
+
+  /**
+   * Filters a range of rows, splitting it in half until it is no longer than a band.
+   */
+  private static class RowTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RowAction action;
+    private final int from;
+    private final int to;
+    private final int band;
+
+    RowTask(RowAction action, int from, int to, int band) {
+      this.action = action;
+      this.from = from;
+      this.to = to;
+      this.band = band;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= band) {
+        for (int row = from; row < to; row++) {
+          action.apply(row);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new RowTask(action, from, mid, band), new RowTask(action, mid, to, band));
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package model.filters;
+
+/**
+ * The per-pixel kernel of the brighten-blend and darken-blend filter options.
+ * A blend keeps the hue and saturation of the pixel on the layer and only changes its lightness,
+ * so the pixel is converted to HSL, given its new lightness, and converted back to RGB
+ * in local variables instead of through an HSLPixel and a Pixel for every pixel.
+ * The pixel of the composed image below only gives its lightness.
+ * Every step is the same double arithmetic as RepresentationConverter,
+ * so the result is exactly the one the HSLPixel conversions give.
+ * The HslBlend class allows to
+ * <li> find the HSL lightness of a packed pixel </li>
+ * <li> give a packed pixel a new HSL lightness </li>
+ */
+final class HslBlend {
+  private static final int MAX_VALUE = 255;
+
+  private HslBlend() {
+    // only static methods
+  }
+
+  /**
+   * Finds the HSL lightness of a packed pixel.
+   * @param argb the packed ARGB value.
+   * @return the lightness of the pixel between 0 and 1.
+   */
+  static double lightness(int argb) {
+    int r = (argb >> 16) & 0xff;
+    int g = (argb >> 8) & 0xff;
+    int b = argb & 0xff;
+    double componentMax = Math.max(r, Math.max(g, b)) / 255.0;
+    double componentMin = Math.min(r, Math.min(g, b)) / 255.0;
+    return (componentMax + componentMin) / 2;
+  }
+
+  /**
+   * Gives a packed pixel a new HSL lightness, keeping its hue, saturation, and alpha.
+   * @param argb the packed ARGB value.
+   * @param lightness the new lightness of the pixel between 0 and 1.
+   * @return the packed ARGB value of the pixel with the new lightness.
+   */
+  static int withLightness(int argb, double lightness) {
+    double r = ((argb >> 16) & 0xff) / 255.0;
+    double g = ((argb >> 8) & 0xff) / 255.0;
+    double b = (argb & 0xff) / 255.0;
+    double componentMax = Math.max(r, Math.max(g, b));
+    double componentMin = Math.min(r, Math.min(g, b));
+    double delta = componentMax - componentMin;
+
+    double hue = 0;
+    double saturation = 0;
+    if (delta != 0) {
+      saturation = delta / (1 - Math.abs(2 * ((componentMax + componentMin) / 2) - 1));
+      if (componentMax == r) {
+        hue = (g - b) / delta;
+        while (hue < 0) {
+          hue += 6;
+        }
+        hue = hue % 6;
+      } else if (componentMax == g) {
+        hue = (b - r) / delta + 2;
+      } else {
+        hue = (r - g) / delta + 4;
+      }
+      hue = hue * 60;
+    }
+    if (saturation > 1) {
+      saturation = 1;
+    }
+
+    double a = saturation * Math.min(lightness, 1 - lightness);
+    return (argb & 0xff000000) | (component(hue, a, lightness, 0) << 16)
+            | (component(hue, a, lightness, 8) << 8) | component(hue, a, lightness, 4);
+  }
+
+  /**
+   * Finds one rgb component from the hue and lightness of a pixel.
+   * @param hue the hue of the pixel.
+   * @param a the saturation of the pixel times the distance of its lightness from 0 or 1.
+   * @param lightness the lightness of the pixel.
+   * @param n 0 for red, 8 for green, and 4 for blue.
+   * @return the component between 0 and 255.
+   */
+  private static int component(double hue, double a, double lightness, int n) {
+    double k = (n + (hue / 30)) % 12;
+    double value = lightness - a * Math.max(-1, Math.min(k - 3, Math.min(9 - k, 1)));
+    return Math.min(Math.max((int) Math.ceil(value * 255), 0), MAX_VALUE);
+  }
+}
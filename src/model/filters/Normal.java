@@ -1,21 +1,37 @@
-package model.filters;
-
-import model.IPixel;
-
-/**
- * This class allows for a normal filter option.
- * Normal does nothing to the image.
- */
-public class Normal implements FilterOptions {
-
-  // Using default Constructor
-
-  @Override
-  public IPixel[][] apply(IPixel[][] image, IPixel[][] composed) {
-    return image;
-  }
-
-  public String toString() {
-    return "normal";
-  }
-}
+package model.filters;
+
+import model.IPixel;
+import model.IRaster;
+
+/**
+ * This class allows for a normal filter option.
+ * Normal does nothing to the image.
+ */
+public class Normal implements PixelFilter {
+
+  // Using default Constructor
+
+  @Override
+  public IPixel[][] apply(IPixel[][] image, IPixel[][] composed) {
+    return image;
+  }
+
+  @Override
+  public int filterPixel(int argb, int below) {
+    return argb;
+  }
+
+  @Override
+  public void filterRow(int[] row, int[] below, int length) {
+    // every pixel stays the same
+  }
+
+  @Override
+  public IRaster apply(IRaster image, IRaster composed) {
+    return image;
+  }
+
+  public String toString() {
+    return "normal";
+  }
+}
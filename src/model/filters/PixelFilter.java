@@ -0,0 +1,69 @@
+package model.filters;
+
+import model.IRaster;
+import model.Raster;
+
+/**
+ * This interface is for the filter options which are pure per-pixel functions.
+ * Each pixel of the result only depends on the pixel at the same place on the layer
+ * and the pixel at the same place on the composed image below it, so the compositing
+ * engine can read a layer pixel, filter it, and place it over the composite in one pass
+ * without ever building the filtered image.
+ * A filtered pixel always keeps the alpha value of the pixel on the layer,
+ * so a fully transparent run of a layer can be skipped without filtering it.
+ */
+public interface PixelFilter extends FilterOptions {
+
+  /**
+   * Filters one pixel of a layer.
+   * @param argb the packed ARGB value of the pixel on the layer
+   * @param below the packed ARGB value of the pixel at the same place on the composed image
+   *              of the layers beneath the layer
+   * @return the packed ARGB value of the filtered pixel
+   */
+  int filterPixel(int argb, int below);
+
+  /**
+   * Filters a run of pixels of a layer in place.
+   * The default filters one pixel at a time. Filters override it with a plain loop over
+   * the arrays, which the JIT compiler can turn into SIMD instructions.
+   * @param row the packed ARGB values of the run, which are replaced by the filtered values
+   * @param below the packed ARGB values at the same places on the composed image
+   *              of the layers beneath the layer
+   * @param length the number of pixels in the run
+   */
+  default void filterRow(int[] row, int[] below, int length) {
+    for (int i = 0; i < length; i++) {
+      row[i] = filterPixel(row[i], below[i]);
+    }
+  }
+
+  /**
+   * Creates a new raster by filtering every pixel of the given raster,
+   * a whole row at a time when the row kernels are turned on.
+   * The given rasters are only read, never changed.
+   * @param image current image of type IRaster
+   * @param composed the composed image of the layers beneath the layer of the given image
+   * @return a raster with the filter applied, which callers should treat as read-only
+   */
+  @Override
+  default IRaster apply(IRaster image, IRaster composed) {
+    IRaster img = new Raster(image.getHeight(), image.getWidth());
+    int width = image.getWidth();
+    FilterExecution.forEachRow(image.getHeight(), width, i -> {
+      if (FilterExecution.isRowKernels()) {
+        int[] row = new int[width];
+        int[] below = new int[width];
+        image.getRow(i, 0, width, row, 0);
+        composed.getRow(i, 0, width, below, 0);
+        filterRow(row, below, width);
+        img.setRow(i, 0, width, row, 0);
+      } else {
+        for (int j = 0; j < width; j++) {
+          img.setARGB(i, j, filterPixel(image.getARGB(i, j), composed.getARGB(i, j)));
+        }
+      }
+    });
+    return img;
+  }
+}
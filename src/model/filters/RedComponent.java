@@ -1,30 +1,48 @@
-package model.filters;
-
-import model.IPixel;
-import model.Pixel;
-
-/**
- * This class allows for a red-component filter option.
- * RedComponent only uses the red portion of the RGB
- * amd sets the green portion and blue portion to 0.
- * It leaves the alpha value the same.
- */
-public class RedComponent implements FilterOptions {
-
-  // Using default Constructor
-
-  @Override
-  public IPixel[][] apply(IPixel[][] image, IPixel[][] composed) {
-    IPixel[][] img = new IPixel[image.length][image[0].length];
-    for (int i = 0; i < image.length; i++) {
-      for (int j = 0; j < image[0].length; j++) {
-        img[i][j] = new Pixel(image[i][j].getR(), 0, 0, image[i][j].getA());
-      }
-    }
-    return img;
-  }
-
-  public String toString() {
-    return "red-component";
-  }
+package model.filters;
+
+import model.IPixel;
+import model.IRaster;
+import model.Pixel;
+
+/**
+ * This class allows for a red-component filter option.
+ * RedComponent only uses the red portion of the RGB
+ * amd sets the green portion and blue portion to 0.
+ * It leaves the alpha value the same.
+ */
+public class RedComponent implements PixelFilter {
+
+  // Using default Constructor
+
+  @Override
+  public IPixel[][] apply(IPixel[][] image, IPixel[][] composed) {
+    IPixel[][] img = new IPixel[image.length][image[0].length];
+    for (int i = 0; i < image.length; i++) {
+      for (int j = 0; j < image[0].length; j++) {
+        img[i][j] = new Pixel(image[i][j].getR(), 0, 0, image[i][j].getA());
+      }
+    }
+    return img;
+  }
+
+  @Override
+  public int filterPixel(int argb, int below) {
+    return argb & 0xffff0000;
+  }
+
+  @Override
+  public void filterRow(int[] row, int[] below, int length) {
+    for (int i = 0; i < length; i++) {
+      row[i] &= 0xffff0000;
+    }
+  }
+
+  @Override
+  public IRaster apply(IRaster image, IRaster composed) {
+    return image.keepChannels(true, false, false);
+  }
+
+  public String toString() {
+    return "red-component";
+  }
 }
\ No newline at end of file
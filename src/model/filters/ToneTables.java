@@ -0,0 +1,122 @@
+package model.filters;
+
+/**
+ * Lookup tables for the brighten and darken filter options.
+ * Every component of a pixel is an 8-bit value, so the weighted luma terms
+ * and the capped component values are computed once here instead of for every pixel.
+ * Brightening and darkening also come in a form with no table lookups, only arithmetic,
+ * which the JIT compiler can vectorize when it is used in a loop over a row.
+ * The luma terms are the same double products which Pixel computes and they are added
+ * in the same order, so every result is exactly the one Pixel gives.
+ * The ToneTables class allows to
+ * <li> find the luma value and the intensity value of a packed pixel </li>
+ * <li> brighten or darken a packed pixel with lookups or with arithmetic </li>
+ */
+final class ToneTables {
+  private static final int MAX_VALUE = 255;
+  // the weighted luma term of every value of the red, green, and blue components
+  private static final double[] LUMA_RED = new double[MAX_VALUE + 1];
+  private static final double[] LUMA_GREEN = new double[MAX_VALUE + 1];
+  private static final double[] LUMA_BLUE = new double[MAX_VALUE + 1];
+  // every component value from -255 to 510, shifted up by 255, capped between 0 and 255
+  private static final int[] CAPPED = new int[3 * MAX_VALUE + 1];
+
+  static {
+    for (int i = 0; i <= MAX_VALUE; i++) {
+      LUMA_RED[i] = .2126 * i;
+      LUMA_GREEN[i] = .7152 * i;
+      LUMA_BLUE[i] = .0722 * i;
+    }
+    for (int i = 0; i < CAPPED.length; i++) {
+      CAPPED[i] = Math.min(Math.max(i - MAX_VALUE, 0), MAX_VALUE);
+    }
+  }
+
+  private ToneTables() {
+    // only static methods
+  }
+
+  /**
+   * Finds the luma value of a packed pixel, the same as Pixel.lumaValue().
+   * @param argb the packed ARGB value.
+   * @return the luma value of the rgb components of the pixel.
+   */
+  static int luma(int argb) {
+    return (int) Math.ceil(LUMA_RED[(argb >> 16) & 0xff] + LUMA_GREEN[(argb >> 8) & 0xff]
+            + LUMA_BLUE[argb & 0xff]);
+  }
+
+  /**
+   * Finds the intensity value of a packed pixel, the same as Pixel.intensityValue().
+   * @param argb the packed ARGB value.
+   * @return the average value of the rgb components of the pixel.
+   */
+  static int intensity(int argb) {
+    // n * 43691 >>> 17 is n / 3 for every n below 2^16
+    return ((((argb >> 16) & 0xff) + ((argb >> 8) & 0xff) + (argb & 0xff)) * 43691) >>> 17;
+  }
+
+  /**
+   * Finds the value of a packed pixel, the same as Pixel.maxRGB().
+   * @param argb the packed ARGB value.
+   * @return the maximum value of the rgb components of the pixel.
+   */
+  static int value(int argb) {
+    return Math.max((argb >> 16) & 0xff, Math.max((argb >> 8) & 0xff, argb & 0xff));
+  }
+
+  /**
+   * Brightens a packed pixel, the same as Pixel.brighten(int value).
+   * @param argb the packed ARGB value.
+   * @param value the value to be added to each rgb component, from 0 to 255.
+   * @return the packed ARGB value of the brightened pixel with the same alpha.
+   */
+  static int brighten(int argb, int value) {
+    return shift(argb, MAX_VALUE + value);
+  }
+
+  /**
+   * Darkens a packed pixel, the same as Pixel.darken(int value).
+   * @param argb the packed ARGB value.
+   * @param value the value to be subtracted from each rgb component, from 0 to 255.
+   * @return the packed ARGB value of the darkened pixel with the same alpha.
+   */
+  static int darken(int argb, int value) {
+    return shift(argb, MAX_VALUE - value);
+  }
+
+  /**
+   * Brightens a packed pixel with arithmetic only, the same as brighten(int argb, int value).
+   * @param argb the packed ARGB value.
+   * @param value the value to be added to each rgb component, from 0 to 255.
+   * @return the packed ARGB value of the brightened pixel with the same alpha.
+   */
+  static int add(int argb, int value) {
+    return (argb & 0xff000000) | (Math.min(((argb >> 16) & 0xff) + value, MAX_VALUE) << 16)
+            | (Math.min(((argb >> 8) & 0xff) + value, MAX_VALUE) << 8)
+            | Math.min((argb & 0xff) + value, MAX_VALUE);
+  }
+
+  /**
+   * Darkens a packed pixel with arithmetic only, the same as darken(int argb, int value).
+   * @param argb the packed ARGB value.
+   * @param value the value to be subtracted from each rgb component, from 0 to 255.
+   * @return the packed ARGB value of the darkened pixel with the same alpha.
+   */
+  static int subtract(int argb, int value) {
+    return (argb & 0xff000000) | (Math.max(((argb >> 16) & 0xff) - value, 0) << 16)
+            | (Math.max(((argb >> 8) & 0xff) - value, 0) << 8)
+            | Math.max((argb & 0xff) - value, 0);
+  }
+
+  /**
+   * Moves every rgb component of a packed pixel by the same amount and caps it.
+   * @param argb the packed ARGB value.
+   * @param offset the amount to be added to each component, plus 255.
+   * @return the packed ARGB value of the moved pixel with the same alpha.
+   */
+  private static int shift(int argb, int offset) {
+    return (argb & 0xff000000) | (CAPPED[((argb >> 16) & 0xff) + offset] << 16)
+            | (CAPPED[((argb >> 8) & 0xff) + offset] << 8) | CAPPED[(argb & 0xff) + offset];
+  }
+}
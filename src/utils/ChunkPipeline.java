@@ -0,0 +1,115 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The ChunkPipeline to be used to work on the chunks of a project file in parallel.
+ * The layers of a project are independent of each other, so the work on every chunk,
+ * such as encoding or decoding its pixels, is run on a ForkJoinPool, while the results are
+ * handed on in the order of the chunks on the calling thread, which writes them out or
+ * adds them to the project. Only a couple of results for every thread of the pool are
+ * worked on or held at once, so a project is never held in memory twice.
+ * With a pool of a single thread every chunk is worked on in order on the calling thread.
+ * The ChunkPipeline class allows to
+ * <li> work on every chunk and hand on the results in order </li>
+ */
+final class ChunkPipeline {
+  private ChunkPipeline() {
+    // only static methods
+  }
+
+  /**
+   * The step which takes the result of every chunk in order.
+   * @param <T> the type of the result of a chunk.
+   */
+  interface Sink<T> {
+    /**
+     * Takes the result of a chunk.
+     * @param index the index of the chunk.
+     * @param result the result of the chunk.
+     * @throws IOException if the result cannot be written.
+     */
+    void accept(int index, T result) throws IOException;
+  }
+
+  /**
+   * Runs the work on every chunk on the given pool and hands on the results in order.
+   * @param pool the pool the chunks are worked on.
+   * @param tasks the work on every chunk, in the order of the chunks.
+   * @param sink the step the results are handed on to on the calling thread.
+   * @param <T> the type of the result of a chunk.
+   * @throws IOException if the work on a chunk or the sink fails with an IOException.
+   */
+  static <T> void run(ForkJoinPool pool, List<? extends Callable<T>> tasks, Sink<T> sink)
+          throws IOException {
+    if (pool.getParallelism() < 2 || tasks.size() < 2) {
+      for (int i = 0; i < tasks.size(); i++) {
+        sink.accept(i, call(tasks.get(i)));
+      }
+      return;
+    }
+    // two chunks for every thread so the pool is kept busy while the sink is working
+    int window = pool.getParallelism() * 2;
+    Deque<Future<T>> running = new ArrayDeque<>();
+    int next = 0;
+    try {
+      for (int i = 0; i < tasks.size(); i++) {
+        while (next < tasks.size() && next < i + window) {
+          // a future task keeps what the work failed with as it is
+          FutureTask<T> task = new FutureTask<>(tasks.get(next++));
+          pool.execute(task);
+          running.add(task);
+        }
+        sink.accept(i, await(running.poll()));
+      }
+    } finally {
+      for (Future<T> task : running) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Works on a chunk on the calling thread.
+   */
+  private static <T> T call(Callable<T> task) throws IOException {
+    try {
+      return task.call();
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Waits for the work on a chunk, passing on what it failed with.
+   */
+  private static <T> T await(Future<T> task) throws IOException {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a chunk");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+}
@@ -1,18 +1,36 @@
 package utils;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Scanner;
 import java.io.FileNotFoundException;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 
+import model.FileRaster;
+import model.IBandWriter;
 import model.ILayer;
+import model.IModel;
+import model.IModelState;
 import model.IPixel;
 import model.IProject;
+import model.IRaster;
 
 /**
  * The ImageUtils class with all methods dealing with reading and writing to any file.
@@ -21,6 +39,8 @@ import model.IProject;
  * open a project, and save a project and all of its contents.
  */
 public class ImageUtil {
+  // the number of rows of the composed image written at a time
+  private static final int BAND_HEIGHT = 128;
 
   /**
    * Reads the file to produce a composed BufferedImage.
@@ -47,82 +67,75 @@ public class ImageUtil {
 
   /**
    * Converts a ppm file to an image of type BufferedImage.
+   * The file is read as plain text (P3) or binary bytes (P6) a row at a time,
+   * and every row is written straight into the pixels of the image.
    *
    * @param filename the filename of the ppm image.
    * @return an image of type BufferedImage.
-   * @throws FileNotFoundException if the file to the image was not found.
+   * @throws FileNotFoundException if the file to the image was not found or cannot be read.
+   * @throws IllegalArgumentException if the file is not a valid ppm file.
    */
-  public static BufferedImage aPPMtoImage(String filename) throws FileNotFoundException {
-    Scanner sc;
-    BufferedImage buffered;
-
-    sc = new Scanner(new FileInputStream(filename));
-
-    StringBuilder builder = new StringBuilder();
-    //read the file line by line, and populate a string. This will throw away any comment lines
-    while (sc.hasNextLine()) {
-      String s = sc.nextLine();
-      if (s.charAt(0) != '#') {
-        builder.append(s + System.lineSeparator());
-      }
-    }
-
-    sc = new Scanner(builder.toString());
-
-    String token;
-
-    token = sc.next();
-    if (!token.equals("P3")) {
-      System.out.println("Invalid PPM file: plain RAW file should begin with P3");
-    }
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int maxValue = sc.nextInt();
-    buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    IPixel[][] image = new IPixel[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        IPixel temp;
-        int r = sc.nextInt();
-        int g = sc.nextInt();
-        int b = sc.nextInt();
-
-        int argb = 0;//a << 24;
-        argb = r << 16;
-        argb |= g << 8;
-        argb |= b;
-        buffered.setRGB(j, i, argb);
+  public static BufferedImage aPPMtoImage(String filename)
+          throws FileNotFoundException, IllegalArgumentException {
+    try (InputStream in = new FileInputStream(filename)) {
+      PPMDecoder decoder = new PPMDecoder(in);
+      int width = decoder.getWidth();
+      int height = decoder.getHeight();
+      BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      WritableRaster raster = buffered.getRaster();
+      int[] row = new int[width];
+      for (int i = 0; i < height; i++) {
+        decoder.readRow(row);
+        // an INT_RGB image keeps the rgb value of each pixel as an int without an alpha
+        for (int j = 0; j < width; j++) {
+          row[j] &= 0xffffff;
+        }
+        raster.setDataElements(0, i, width, 1, row);
       }
+      return buffered;
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new FileNotFoundException("Error occurred during reading\n");
     }
-    return buffered;
   }
 
   /**
    * Saves the composed image to a file.
+   * A ppm file is written as plain text (P3).
    *
    * @param img      the composed image.
    * @param fileName the filename to save the image to.
    * @throws IOException if the file cannot be created.
    */
   public static void saveImg(IPixel[][] img, String fileName) throws IOException {
-    int maxValue = img[0][0].getMaxValue();
+    saveImg(img, fileName, false);
+  }
+
+  /**
+   * Saves the composed image to a file.
+   *
+   * @param img      the composed image.
+   * @param fileName the filename to save the image to.
+   * @param binary   true to write a ppm file as binary bytes (P6) instead of plain text (P3).
+   * @throws IOException if the file cannot be created.
+   */
+  public static void saveImg(IPixel[][] img, String fileName, boolean binary)
+          throws IOException {
     String extension = fileName.split("\\.", 0)[1];
-    if (fileName.split("\\.", 0)[1].equals("ppm")) {
-      FileWriter writer = new FileWriter(fileName);
-      writer.write("P3\n");
-      writer.write(img[0].length + " " + img.length + "\n");
-      writer.write(maxValue + "\n");
-      for (int i = 0; i < img.length; i++) {
-        for (int j = 0; j < img[0].length; j++) {
-          writer.write((int) (img[i][j].getR()
-                  * ((double) (img[i][j].getA()) / maxValue)) + " ");
-          writer.write((int) (img[i][j].getG()
-                  * ((double) (img[i][j].getA()) / maxValue)) + " ");
-          writer.write((int) (img[i][j].getB()
-                  * ((double) (img[i][j].getA()) / maxValue)) + " ");
+    if (extension.equals("ppm")) {
+      try (OutputStream out = new FileOutputStream(fileName)) {
+        PPMEncoder encoder = new PPMEncoder(out, img[0].length, img.length, binary);
+        int[] row = new int[img[0].length];
+        for (int i = 0; i < img.length; i++) {
+          for (int j = 0; j < img[0].length; j++) {
+            row[j] = (img[i][j].getA() << 24) | (img[i][j].getR() << 16)
+                    | (img[i][j].getG() << 8) | img[i][j].getB();
+          }
+          encoder.writeRow(row, row.length);
         }
+        encoder.flush();
       }
-      writer.close();
     }
     else { // if file not ppm, convert pixels to bufferedImage and ImageIO.write them
       BufferedImage buffered = ImageUtil.createBuffImage(img);
@@ -130,6 +143,108 @@ public class ImageUtil {
     }
   }
 
+  /**
+   * Saves the composed image of the given project to a file, one band of rows at a time.
+   * A ppm file is written as plain text (P3) while holding only a few bands of the image.
+   * A png or jpg file still gathers the bands into one BufferedImage of the whole canvas,
+   * as described for {@link #saveImg(IProject, String, boolean)}.
+   *
+   * @param proj the project whose composed image is saved.
+   * @param fileName the filename to save the image to.
+   * @throws IOException if the file cannot be created.
+   */
+  public static void saveImg(IProject proj, String fileName) throws IOException {
+    saveImg(proj, fileName, false);
+  }
+
+  /**
+   * Saves the composed image of the given project to a file, one band of rows at a time.
+   * The project is composed one band of rows at a time and every band is written as soon as
+   * it is composed, so a ppm file is written while holding only a few bands of the image.
+   * Other file formats, such as png and jpg, are encoded by ImageIO, whose writers read the
+   * image from one RenderedImage, so the bands are copied into a BufferedImage of the whole
+   * canvas before it is written. That image holds one packed int per pixel instead of a Pixel,
+   * but it is still as large as the canvas, so only a ppm file keeps the memory of a save
+   * down to a few bands.
+   *
+   * @param proj the project whose composed image is saved.
+   * @param fileName the filename to save the image to.
+   * @param binary true to write a ppm file as binary bytes (P6) instead of plain text (P3).
+   * @throws IOException if the file cannot be created.
+   */
+  public static void saveImg(IProject proj, String fileName, boolean binary)
+          throws IOException {
+    saveImg(proj.getHeight(), proj.getWidth(), proj::renderBands, fileName, binary);
+  }
+
+  /**
+   * Saves the composed image of the current project of the given model to a file,
+   * one band of rows at a time, straight from the project instead of a copy of it,
+   * so the composed images the project keeps are used and its own layout holds the bands.
+   * A png or jpg file still gathers the bands into one BufferedImage of the whole canvas,
+   * as described for {@link #saveImg(IProject, String, boolean)}.
+   *
+   * @param model the model whose current project is saved.
+   * @param fileName the filename to save the image to.
+   * @throws IOException if the file cannot be created.
+   */
+  public static void saveImg(IModelState model, String fileName) throws IOException {
+    saveImg(model, fileName, false);
+  }
+
+  /**
+   * Saves the composed image of the current project of the given model to a file,
+   * one band of rows at a time, straight from the project instead of a copy of it.
+   *
+   * @param model the model whose current project is saved.
+   * @param fileName the filename to save the image to.
+   * @param binary true to write a ppm file as binary bytes (P6) instead of plain text (P3).
+   * @throws IOException if the file cannot be created.
+   */
+  public static void saveImg(IModelState model, String fileName, boolean binary)
+          throws IOException {
+    saveImg(model.getHeight(), model.getWidth(), model::renderBands, fileName, binary);
+  }
+
+  /**
+   * Renders a composed image one band of rows at a time, like a project or a model does.
+   */
+  private interface BandSource {
+    void renderBands(int bandHeight, IBandWriter writer) throws IOException;
+  }
+
+  /**
+   * Saves the composed image given in bands by the source to a file.
+   */
+  private static void saveImg(int height, int width, BandSource source, String fileName,
+          boolean binary) throws IOException {
+    String extension = fileName.split("\\.", 0)[1];
+    if (extension.equals("ppm")) {
+      try (OutputStream out = new FileOutputStream(fileName)) {
+        PPMEncoder encoder = new PPMEncoder(out, width, height, binary);
+        int[] row = new int[width];
+        source.renderBands(BAND_HEIGHT, (band, top) -> {
+          for (int i = 0; i < band.getHeight(); i++) {
+            band.getRow(i, 0, width, row, 0);
+            encoder.writeRow(row, width);
+          }
+        });
+        encoder.flush();
+      }
+    }
+    else { // if file not ppm, copy the bands into a BufferedImage and ImageIO.write it
+      BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      int[] row = new int[width];
+      source.renderBands(BAND_HEIGHT, (band, top) -> {
+        for (int i = 0; i < band.getHeight(); i++) {
+          band.getRow(i, 0, width, row, 0);
+          buffered.setRGB(0, top + i, width, 1, row, 0, width);
+        }
+      });
+      ImageIO.write(buffered, extension, new File(fileName));
+    }
+  }
+
   /**
    * Opens a project with all of its data and contents given the filename.
    *
@@ -155,39 +270,162 @@ public class ImageUtil {
   }
 
   /**
-   * Saves the given project at the given filename.
+   * Opens a project saved in either the binary format or the plain text format.
+   * The format is told from the first bytes of the file, and the file is never held as a whole.
+   * A plain text file is read from a channel in one pass with every layer built as it is read,
+   * and the layers of a binary file are found with its index and read in parallel.
+   *
+   * @param filename the filename at which the project is located.
+   * @param model the model the filters of the layers are found with by their names.
+   * @return the project saved in the file.
+   * @throws FileNotFoundException if the given file at the filename is not found.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a valid project file.
+   */
+  public static IProject loadProj(String filename, IModel model)
+          throws IOException, IllegalArgumentException {
+    return loadProj(filename, model, false);
+  }
+
+  /**
+   * Opens a project saved in either the binary format or the plain text format.
+   * A binary project may be opened lazily, which finds every layer with the index of the file
+   * and maps its raw pixels into memory instead of reading them, so opening a large project
+   * is near-instant and a pixel is only read once a render or an edit touches it.
+   * A layer is copied out of the file when it is first changed, and the file may be saved over.
+   * A plain text project and compressed pixels are always read right away.
+   *
+   * @param filename the filename at which the project is located.
+   * @param model the model the filters of the layers are found with by their names.
+   * @param lazy true to leave the raw pixels of a binary project in the file until they are used.
+   * @return the project saved in the file.
+   * @throws FileNotFoundException if the given file at the filename is not found.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a valid project file.
+   */
+  public static IProject loadProj(String filename, IModel model, boolean lazy)
+          throws IOException, IllegalArgumentException {
+    try (FileChannel channel = new FileInputStream(filename).getChannel()) {
+      ByteBuffer start = ByteBuffer.allocate(ProjectEncoder.MAGIC.length);
+      int read = 0;
+      while (start.hasRemaining() && read >= 0) {
+        read = channel.read(start);
+      }
+      channel.position(0);
+      if (!start.hasRemaining() && ProjectDecoder.isBinary(start.array())) {
+        // the layers are read on the common pool, like the tiles of a composite
+        return ProjectDecoder.readProject(channel, Paths.get(filename), model, lazy,
+                ForkJoinPool.commonPool());
+      }
+      return new ProjectTextDecoder(channel).readProject(model);
+    }
+  }
+
+
+  /**
+   * Saves the given project at the given filename as plain text.
+   * Every layer is saved with the bounds of its content and only the pixels inside them,
+   * since the rest of the layer is transparent.
    *
    * @param fileName the filename at which the project should be saved.
    * @param proj the project to be saved.
    * @throws IOException if the file cannot be saved.
    */
   public static void saveProj(String fileName, IProject proj) throws IOException {
-    int maxValue = 0;
-    if (proj.getLayers().size() > 0) {
-      maxValue = proj.getLayers().get(0).getImage()[0][0].getMaxValue();
-    }
-    int height = proj.getHeight();
-    int width = proj.getWidth();
-    FileWriter writer =
-            new FileWriter(fileName);
-    writer.write(proj.getName() + "\n");
-    writer.write(width + " " + height + "\n");
-    writer.write(maxValue + "\n");
-    for (ILayer l : proj.getLayers()) {
-      writer.write(l.getName() + " ");
-      writer.write(l.getFilter().toString() + "\n");
-      IPixel[][] image = l.getImage();
-      for (int i = 0; i < height; i++) {
-        for (int j = 0; j < width; j++) {
-          writer.write(image[i][j].getR() + " ");
-          writer.write(image[i][j].getG() + " ");
-          writer.write(image[i][j].getB() + " ");
-          writer.write(image[i][j].getA() + " ");
+    saveProj(fileName, proj, false);
+  }
+
+  /**
+   * Saves the given project at the given filename, as binary chunks or as plain text.
+   * A binary project holds the raw packed pixels of every layer inside its bounds,
+   * so it is written and read as fast as the disk allows.
+   *
+   * @param fileName the filename at which the project should be saved.
+   * @param proj the project to be saved.
+   * @param binary true to save the project in the binary format instead of plain text.
+   * @throws IOException if the file cannot be saved.
+   */
+  public static void saveProj(String fileName, IProject proj, boolean binary)
+          throws IOException {
+    saveProj(fileName, proj, binary, false);
+  }
+
+  /**
+   * Saves the given project at the given filename, as binary chunks or as plain text.
+   * The pixels of a binary project may be compressed, which makes the file smaller
+   * but slower to write and read.
+   * The pixels of the layers are encoded in parallel and written out in order.
+   *
+   * @param fileName the filename at which the project should be saved.
+   * @param proj the project to be saved.
+   * @param binary true to save the project in the binary format instead of plain text.
+   * @param compress true to compress the pixels of every layer of a binary project.
+   * @throws IOException if the file cannot be saved.
+   */
+  public static void saveProj(String fileName, IProject proj, boolean binary, boolean compress)
+          throws IOException {
+    // the project is written next to the file and then moved over it, so a project still
+    // reading its pixels from the old file keeps them, and a failed save leaves the file as it was
+    Path target = Paths.get(fileName).toAbsolutePath();
+    Path part = target.resolveSibling(target.getFileName() + ".part");
+    try {
+      writeProj(part.toFile(), proj, binary, compress);
+      // some systems, such as Windows, do not let a mapped file be replaced, so the layers
+      // still read lazily from the file are read into memory and the file unmapped before it is
+      for (ILayer layer : proj.getLayers()) {
+        IRaster image = layer.getRaster();
+        if (image instanceof FileRaster && isSameFile(((FileRaster) image).getFile(), target)) {
+          ((FileRaster) image).detach();
         }
       }
-      writer.write("\n");
+      try {
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(part);
+    }
+  }
+
+  /**
+   * Tells if the given paths are the same file, which is false if either does not exist.
+   */
+  private static boolean isSameFile(Path path, Path other) {
+    try {
+      return path != null && Files.isSameFile(path, other);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Writes the given project to the given file, as binary chunks or as plain text.
+   */
+  private static void writeProj(File file, IProject proj, boolean binary, boolean compress)
+          throws IOException {
+    List<ILayer> layers = proj.getLayers();
+    // the layers are encoded on the common pool, like the tiles of a composite
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    if (binary) {
+      try (OutputStream out = new FileOutputStream(file)) {
+        ProjectEncoder encoder = new ProjectEncoder(out, compress);
+        encoder.writeHeader(proj.getName(), proj.getWidth(), proj.getHeight(), layers.size());
+        encoder.writeLayers(layers, pool);
+        encoder.finish();
+      }
+      return;
+    }
+    int maxValue = 0;
+    if (layers.size() > 0) {
+      maxValue = layers.get(0).getRaster().getPixel(0, 0).getMaxValue();
+    }
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+      ProjectTextEncoder encoder = new ProjectTextEncoder(out);
+      encoder.writeHeader(proj.getName(), proj.getWidth(), proj.getHeight(), maxValue);
+      encoder.writeLayers(layers, pool);
     }
-    writer.close();
   }
 
   /**
@@ -198,26 +436,22 @@ public class ImageUtil {
    * @return a BufferedImage with the rgb values of the given image.
    */
   public static BufferedImage createBuffImage(IPixel[][] image) {
+    int width = image[0].length;
     BufferedImage buffered =
-            new BufferedImage(image[0].length, image.length, BufferedImage.TYPE_INT_RGB);
+            new BufferedImage(width, image.length, BufferedImage.TYPE_INT_RGB);
+    WritableRaster raster = buffered.getRaster();
+    int[] row = new int[width];
 
-    //Iterating so x moves to the right and y moves down
+    //Iterating row by row, so each row is written into the raster in one bulk call
     for (int i = 0; i < image.length; i++) {
-      for (int j = 0; j < image[0].length; j++) {
-        int r = image[i][j].getR();
-        int g = image[i][j].getG();
-        int b = image[i][j].getB();
-        int a = image[i][j].getA();
-
-        // Taking the 4 values and creating a single number
-        int argb = 0;//a << 24;
-        argb = r << 16;
-        argb |= g << 8;
-        argb |= b;
-        buffered.setRGB(j, i, argb);
+      for (int j = 0; j < width; j++) {
+        // an INT_RGB image keeps the rgb value of each pixel as an int without an alpha
+        row[j] = (image[i][j].getR() << 16) | (image[i][j].getG() << 8) | image[i][j].getB();
       }
+      raster.setDataElements(0, i, width, 1, row);
     }
     return buffered;
   }
+
 }
 
@@ -0,0 +1,174 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The PPMDecoder to be used to read a ppm file a row at a time.
+ * The bytes of the file are read through one buffer and every number is parsed from its digits
+ * as it is read, so the file is never held as a string or split into tokens.
+ * A comment starts with a # anywhere a number may start and runs to the end of its line.
+ * Both plain text (P3) and binary (P6) files are read, and every component is scaled from
+ * the maximum value of the file to 255.
+ * The PPMDecoder class allows to
+ * <li> read the header of a ppm file </li>
+ * <li> read a row of pixels as opaque packed ARGB values </li>
+ */
+final class PPMDecoder {
+  private static final int MAX_VALUE = 255;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream in;
+  private final byte[] buffer;
+  private int position;
+  private int limit;
+  private final boolean binary;
+  private final int width;
+  private final int height;
+  private final int maxValue;
+  // every value from 0 to the maximum value of the file scaled to 255, or null if it is 255
+  private final int[] scale;
+
+  /**
+   * Constructor for a PPMDecoder.
+   * Creates a {@code PPMDecoder} and reads the header of the ppm file.
+   * @param in the stream the file is read from.
+   * @throws IllegalArgumentException if the file is not a P3 or P6 ppm file.
+   * @throws IOException if the header cannot be read.
+   */
+  PPMDecoder(InputStream in) throws IllegalArgumentException, IOException {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.position = 0;
+    this.limit = 0;
+    int p = read();
+    int kind = read();
+    if (p != 'P' || (kind != '3' && kind != '6')) {
+      throw new IllegalArgumentException("Invalid PPM file: should begin with P3 or P6");
+    }
+    this.binary = kind == '6';
+    this.width = readInt();
+    this.height = readInt();
+    this.maxValue = readInt();
+    if (width <= 0 || height <= 0 || maxValue <= 0 || maxValue > 65535) {
+      throw new IllegalArgumentException("Invalid PPM file: bad width, height, or maxValue");
+    }
+    if (maxValue == MAX_VALUE) {
+      this.scale = null;
+    } else {
+      this.scale = new int[maxValue + 1];
+      for (int v = 0; v <= maxValue; v++) {
+        scale[v] = (v * MAX_VALUE + maxValue / 2) / maxValue;
+      }
+    }
+  }
+
+  /**
+   * Gets the width of the image.
+   * @return the width of the image.
+   */
+  int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the height of the image.
+   * @return the height of the image.
+   */
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * Reads the next row of the image as opaque packed ARGB values.
+   * @param row the array the row is written to, which holds at least the width of the image.
+   * @throws IllegalArgumentException if the file ends early or holds a value above maxValue.
+   * @throws IOException if the row cannot be read.
+   */
+  void readRow(int[] row) throws IllegalArgumentException, IOException {
+    for (int j = 0; j < width; j++) {
+      int r = component();
+      int g = component();
+      int b = component();
+      row[j] = 0xff000000 | (r << 16) | (g << 8) | b;
+    }
+  }
+
+  /**
+   * Reads the next component of a pixel and scales it to 255.
+   */
+  private int component() throws IllegalArgumentException, IOException {
+    int value;
+    if (!binary) {
+      value = readInt();
+    } else if (maxValue <= MAX_VALUE) {
+      value = readByte();
+    } else {
+      value = (readByte() << 8) | readByte();
+    }
+    if (value > maxValue) {
+      throw new IllegalArgumentException("Invalid PPM file: value above maxValue");
+    }
+    return scale == null ? value : scale[value];
+  }
+
+  /**
+   * Reads the next byte of the pixels of a binary file.
+   */
+  private int readByte() throws IllegalArgumentException, IOException {
+    int c = read();
+    if (c < 0) {
+      throw new IllegalArgumentException("Invalid PPM file: the file ends early");
+    }
+    return c;
+  }
+
+  /**
+   * Reads the next number, skipping whitespace and comments before it.
+   */
+  private int readInt() throws IllegalArgumentException, IOException {
+    int c = read();
+    while (c == '#' || c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f') {
+      if (c == '#') {
+        while (c != '\n' && c != '\r' && c >= 0) {
+          c = read();
+        }
+      }
+      c = read();
+    }
+    if (c < '0' || c > '9') {
+      throw new IllegalArgumentException(c < 0 ? "Invalid PPM file: the file ends early"
+              : "Invalid PPM file: expected a number");
+    }
+    int value = 0;
+    while (c >= '0' && c <= '9') {
+      if (value > (Integer.MAX_VALUE - 9) / 10) {
+        throw new IllegalArgumentException("Invalid PPM file: number too large");
+      }
+      value = value * 10 + (c - '0');
+      c = read();
+    }
+    // the whitespace byte after a number is dropped, so the pixels of a binary file start
+    // right after its header, but a # starts a comment which is skipped with the next number
+    if (c == '#') {
+      position--;
+    }
+    return value;
+  }
+
+  /**
+   * Reads the next byte of the file.
+   * @return the byte, or -1 at the end of the file.
+   */
+  private int read() throws IOException {
+    if (position == limit) {
+      limit = in.read(buffer, 0, BUFFER_SIZE);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    return buffer[position++] & 0xff;
+  }
+}
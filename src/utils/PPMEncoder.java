@@ -0,0 +1,110 @@
+package utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The PPMEncoder to be used to write an image to a ppm file a row at a time.
+ * Every pixel is written with its rgb components scaled by its alpha value,
+ * as plain text (P3) or as binary bytes (P6).
+ * The scaled components are looked up in a table made with the same double arithmetic
+ * ImageUtil has always used, and every number is copied from a table of its digits,
+ * into one buffer of bytes which is written out whenever it fills up,
+ * so writing a row neither builds a string nor allocates.
+ * The PPMEncoder class allows to
+ * <li> write the header of a ppm file </li>
+ * <li> write a row of packed ARGB values </li>
+ */
+final class PPMEncoder {
+  private static final int MAX_VALUE = 255;
+  private static final int BUFFER_SIZE = 1 << 16;
+  // the component c of a pixel with alpha a, scaled by the alpha, at index a * 256 + c
+  private static final byte[] SCALED = new byte[(MAX_VALUE + 1) * (MAX_VALUE + 1)];
+  // the digits of every value from 0 to 255 followed by a space
+  static final byte[][] DIGITS = new byte[MAX_VALUE + 1][];
+
+  static {
+    for (int a = 0; a <= MAX_VALUE; a++) {
+      for (int c = 0; c <= MAX_VALUE; c++) {
+        SCALED[(a << 8) | c] = (byte) (int) (c * ((double) a / MAX_VALUE));
+      }
+    }
+    for (int v = 0; v <= MAX_VALUE; v++) {
+      DIGITS[v] = (v + " ").getBytes();
+    }
+  }
+
+  private final OutputStream out;
+  private final boolean binary;
+  private final byte[] buffer;
+  private int position;
+
+  /**
+   * Constructor for a PPMEncoder.
+   * Creates a {@code PPMEncoder} and writes the header of the ppm file.
+   * @param out the stream the file is written to.
+   * @param width the width of the image.
+   * @param height the height of the image.
+   * @param binary true to write the pixels as bytes (P6), false to write them as text (P3).
+   * @throws IOException if the header cannot be written.
+   */
+  PPMEncoder(OutputStream out, int width, int height, boolean binary) throws IOException {
+    this.out = out;
+    this.binary = binary;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.position = 0;
+    out.write(((binary ? "P6" : "P3") + "\n" + width + " " + height + "\n" + MAX_VALUE + "\n")
+            .getBytes());
+  }
+
+  /**
+   * Writes a row of the image, scaling the rgb components of every pixel by its alpha value.
+   * A text row ends with a new line.
+   * @param row the packed ARGB values of the row.
+   * @param length the width of the image.
+   * @throws IOException if the row cannot be written.
+   */
+  void writeRow(int[] row, int length) throws IOException {
+    for (int j = 0; j < length; j++) {
+      if (position > BUFFER_SIZE - 12) {
+        flush();
+      }
+      int alpha = (row[j] >>> 24) << 8;
+      int r = SCALED[alpha | ((row[j] >> 16) & 0xff)] & 0xff;
+      int g = SCALED[alpha | ((row[j] >> 8) & 0xff)] & 0xff;
+      int b = SCALED[alpha | (row[j] & 0xff)] & 0xff;
+      if (binary) {
+        buffer[position++] = (byte) r;
+        buffer[position++] = (byte) g;
+        buffer[position++] = (byte) b;
+      } else {
+        put(DIGITS[r]);
+        put(DIGITS[g]);
+        put(DIGITS[b]);
+      }
+    }
+    if (!binary) {
+      if (position == BUFFER_SIZE) {
+        flush();
+      }
+      buffer[position++] = '\n';
+    }
+  }
+
+  /**
+   * Copies the digits of a value into the buffer.
+   */
+  private void put(byte[] digits) {
+    System.arraycopy(digits, 0, buffer, position, digits.length);
+    position += digits.length;
+  }
+
+  /**
+   * Writes out everything in the buffer.
+   * @throws IOException if the buffer cannot be written.
+   */
+  void flush() throws IOException {
+    out.write(buffer, 0, position);
+    position = 0;
+  }
+}
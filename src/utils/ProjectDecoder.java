@@ -0,0 +1,416 @@
+package utils;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import model.FileRaster;
+import model.IModel;
+import model.IProject;
+import model.IRaster;
+import model.Project;
+import model.Raster;
+
+/**
+ * The ProjectDecoder to be used to read a binary project file written by a
+ * {@link ProjectEncoder}.
+ * The chunk of every layer is found with the index at the end of the file, and the pixels
+ * of the chunks are read on a pool of threads, each through a buffer of its own, straight into
+ * the raster of their image, so the file is never held as a whole.
+ * The raw pixels of every layer may instead be mapped in place and read once they are used.
+ * The ProjectDecoder class allows to
+ * <li> tell if a file starts like a binary project file </li>
+ * <li> read the header of a binary project file </li>
+ * <li> read every layer of a file into a project, right away or once its pixels are used </li>
+ */
+final class ProjectDecoder {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final ReadableByteChannel in;
+  private final byte[] buffer;
+  private final ByteBuffer view;
+  private int position;
+  private int limit;
+  // the offset in the file of the first byte of the buffer
+  private long base;
+  private final String name;
+  private final int width;
+  private final int height;
+  private final int layers;
+
+  /**
+   * Constructor for a ProjectDecoder.
+   * Creates a {@code ProjectDecoder} and reads the header of the file.
+   * @param in the channel the file is read from.
+   * @throws IllegalArgumentException if the file is not a binary project file of a known version.
+   * @throws IOException if the header cannot be read.
+   */
+  ProjectDecoder(ReadableByteChannel in) throws IllegalArgumentException, IOException {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.view = ByteBuffer.wrap(buffer);
+    this.position = 0;
+    this.limit = 0;
+    this.base = 0;
+    require(ProjectEncoder.MAGIC.length);
+    if (!isBinary(buffer)) {
+      throw new IllegalArgumentException("Invalid project file: not a binary project");
+    }
+    position += ProjectEncoder.MAGIC.length;
+    int version = readInt();
+    if (version != ProjectEncoder.VERSION) {
+      throw new IllegalArgumentException("Invalid project file: unknown version " + version);
+    }
+    this.name = readString();
+    this.width = readInt();
+    this.height = readInt();
+    this.layers = readInt();
+    if (width <= 0 || height <= 0 || layers < 0) {
+      throw new IllegalArgumentException("Invalid project file: bad width, height, or layers");
+    }
+  }
+
+  /**
+   * Constructor for a ProjectDecoder.
+   * Creates a {@code ProjectDecoder} which reads the pixels of a chunk from the given channel.
+   * @param in the channel the pixels are read from.
+   * @param base the offset in the file of the first byte read from the channel.
+   */
+  private ProjectDecoder(ReadableByteChannel in, long base) {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.view = ByteBuffer.wrap(buffer);
+    this.position = 0;
+    this.limit = 0;
+    this.base = base;
+    this.name = null;
+    this.width = 0;
+    this.height = 0;
+    this.layers = 0;
+  }
+
+  /**
+   * Tells if the given bytes are the start of a binary project file.
+   * @param start at least the first 4 bytes of a file.
+   * @return true if the bytes are the magic bytes of a binary project file.
+   */
+  static boolean isBinary(byte[] start) {
+    for (int i = 0; i < ProjectEncoder.MAGIC.length; i++) {
+      if (start[i] != ProjectEncoder.MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads every layer of a binary project file into a new project.
+   * The chunk of every layer is found with the index at the end of the file, and the pixels
+   * of the chunks are read on the given pool, each from its own offset of the file, while the
+   * layers are added to the project in order as their pixels are ready.
+   * If the project is read lazily the raw pixels of every layer are mapped into memory in place
+   * instead, so they are only read from the disk once a render or an edit touches them.
+   * Compressed pixels must be inflated, so they are always read right away.
+   * The file may be closed once the project is read.
+   * @param channel the channel of the file.
+   * @param file the path of the file, which the layers read lazily are mapped from.
+   * @param model the model the filters of the layers are found with by their names.
+   * @param lazy true to leave the raw pixels of the layers in the file until they are used.
+   * @param pool the pool the pixels of the layers are read on.
+   * @return the project of the file.
+   * @throws IllegalArgumentException if the file is not a valid binary project file.
+   * @throws IOException if the file cannot be read.
+   */
+  static IProject readProject(FileChannel channel, Path file, IModel model, boolean lazy,
+          ForkJoinPool pool) throws IllegalArgumentException, IOException {
+    ProjectDecoder decoder = new ProjectDecoder(channel);
+    long size = channel.size();
+    // the trailer is the offset of the index followed by the magic bytes of the index
+    int trailer = Long.BYTES + Integer.BYTES;
+    if (size < trailer) {
+      throw new IllegalArgumentException("Invalid project file: the file ends early");
+    }
+    decoder.seek(channel, size - trailer);
+    long indexOffset = decoder.readLong();
+    if (decoder.readInt() != ProjectEncoder.INDEX_MAGIC || indexOffset < 0
+            || indexOffset > size - trailer) {
+      throw new IllegalArgumentException("Invalid project file: the index is missing");
+    }
+    decoder.seek(channel, indexOffset);
+    if (decoder.readInt() != decoder.layers) {
+      throw new IllegalArgumentException("Invalid project file: the index does not match");
+    }
+    long[] offsets = new long[decoder.layers];
+    for (int k = 0; k < offsets.length; k++) {
+      offsets[k] = decoder.readLong();
+      decoder.readLong(); // the length of the chunk
+    }
+    List<Chunk> chunks = new ArrayList<>();
+    for (long offset : offsets) {
+      if (offset < 0 || offset >= indexOffset) {
+        throw new IllegalArgumentException("Invalid project file: bad offset of a layer");
+      }
+      decoder.seek(channel, offset);
+      chunks.add(decoder.readChunk(channel, file, lazy));
+    }
+    Project proj = new Project(decoder.name, decoder.height, decoder.width);
+    ChunkPipeline.run(pool, chunks, (k, image) -> {
+      Chunk chunk = chunks.get(k);
+      proj.addLayer(chunk.name);
+      if (image != null) {
+        // a raster mapped from the file covers the whole project
+        proj.addImageToLayer(chunk.name, image, image instanceof FileRaster ? 0 : chunk.bounds.x,
+                image instanceof FileRaster ? 0 : chunk.bounds.y);
+      }
+      proj.setFilter(chunk.name, model.getFilterOptionsObject(chunk.filter));
+    });
+    return proj;
+  }
+
+  /**
+   * Reads the header of the chunk of a layer, which tells where and how its pixels are stored.
+   */
+  private Chunk readChunk(FileChannel channel, Path file, boolean lazy)
+          throws IllegalArgumentException, IOException {
+    String layerName = readString();
+    String filter = readString();
+    int x = readInt();
+    int y = readInt();
+    int w = readInt();
+    int h = readInt();
+    require(1);
+    byte encoding = buffer[position++];
+    if (w < 0 || h < 0 || (w > 0 && h > 0
+            && (x < 0 || y < 0 || x + w > width || y + h > height))) {
+      throw new IllegalArgumentException("Invalid project file: bad bounds of a layer");
+    }
+    if (encoding != ProjectEncoder.RAW && encoding != ProjectEncoder.DEFLATE) {
+      throw new IllegalArgumentException("Invalid project file: unknown encoding");
+    }
+    return new Chunk(channel, file, layerName, filter, new Rectangle(x, y, w, h), encoding,
+            base + position, lazy, height, width);
+  }
+
+  /**
+   * The chunk of a layer, whose pixels are read on their own.
+   */
+  private static final class Chunk implements Callable<IRaster> {
+    private final FileChannel channel;
+    private final Path file;
+    private final String name;
+    private final String filter;
+    private final Rectangle bounds;
+    private final byte encoding;
+    // the offset in the file of the first byte after the header of the chunk
+    private final long pixels;
+    private final boolean lazy;
+    private final int height;
+    private final int width;
+
+    Chunk(FileChannel channel, Path file, String name, String filter, Rectangle bounds,
+          byte encoding, long pixels, boolean lazy, int height, int width) {
+      this.channel = channel;
+      this.file = file;
+      this.name = name;
+      this.filter = filter;
+      this.bounds = bounds;
+      this.encoding = encoding;
+      this.pixels = pixels;
+      this.lazy = lazy;
+      this.height = height;
+      this.width = width;
+    }
+
+    /**
+     * Reads the pixels of the chunk.
+     * @return the image of the layer, or null if the layer is empty.
+     */
+    @Override
+    public IRaster call() throws IllegalArgumentException, IOException {
+      if (bounds.isEmpty()) {
+        return null;
+      }
+      if (lazy && encoding == ProjectEncoder.RAW) {
+        return new FileRaster(channel, file, (pixels + 3) & ~3L, height, width, bounds);
+      }
+      ProjectDecoder decoder = new ProjectDecoder(new Region(channel, pixels), pixels);
+      IRaster image = new Raster(bounds.height, bounds.width);
+      if (encoding == ProjectEncoder.RAW) {
+        decoder.readRaw(image);
+      } else {
+        decoder.readDeflated(image);
+      }
+      return image;
+    }
+  }
+
+  /**
+   * A channel which reads a file from an offset of its own, so many chunks of the file
+   * can be read at the same time.
+   */
+  private static final class Region implements ReadableByteChannel {
+    private final FileChannel file;
+    private long offset;
+
+    Region(FileChannel file, long offset) {
+      this.file = file;
+      this.offset = offset;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int read = file.read(dst, offset);
+      if (read > 0) {
+        offset += read;
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return file.isOpen();
+    }
+
+    @Override
+    public void close() {
+      // the file is closed by whoever opened it
+    }
+  }
+
+  /**
+   * Reads raw packed ARGB values into every row of the given raster.
+   */
+  private void readRaw(IRaster image) throws IllegalArgumentException, IOException {
+    while (((base + position) & 3) != 0) {
+      require(1);
+      position++;
+    }
+    int w = image.getWidth();
+    int[] row = new int[w];
+    for (int i = 0; i < image.getHeight(); i++) {
+      for (int j = 0; j < w; ) {
+        require(4);
+        int run = Math.min(w - j, (limit - position) >> 2);
+        for (int k = j; k < j + run; k++) {
+          row[k] = view.getInt(position);
+          position += 4;
+        }
+        j += run;
+      }
+      image.setRow(i, 0, w, row, 0);
+    }
+  }
+
+  /**
+   * Inflates deflated packed ARGB values into every row of the given raster.
+   */
+  private void readDeflated(IRaster image) throws IllegalArgumentException, IOException {
+    long remaining = readInt() & 0xffffffffL;
+    int w = image.getWidth();
+    int[] row = new int[w];
+    byte[] bytes = new byte[w * 4];
+    ByteBuffer rowView = ByteBuffer.wrap(bytes);
+    Inflater inflater = new Inflater();
+    try {
+      for (int i = 0; i < image.getHeight(); i++) {
+        for (int got = 0; got < bytes.length; ) {
+          if (inflater.needsInput()) {
+            if (remaining == 0) {
+              throw new IllegalArgumentException("Invalid project file: the pixels end early");
+            }
+            require(1);
+            int take = (int) Math.min(remaining, limit - position);
+            inflater.setInput(buffer, position, take);
+            position += take;
+            remaining -= take;
+          }
+          int n = inflater.inflate(bytes, got, bytes.length - got);
+          if (n == 0 && (inflater.finished() || inflater.needsDictionary())) {
+            throw new IllegalArgumentException("Invalid project file: the pixels end early");
+          }
+          got += n;
+        }
+        rowView.asIntBuffer().get(row);
+        image.setRow(i, 0, w, row, 0);
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Invalid project file: bad compressed pixels");
+    } finally {
+      inflater.end();
+    }
+    while (remaining > 0) {
+      require(1);
+      int skip = (int) Math.min(remaining, limit - position);
+      position += skip;
+      remaining -= skip;
+    }
+  }
+
+  private int readInt() throws IllegalArgumentException, IOException {
+    require(4);
+    int value = view.getInt(position);
+    position += 4;
+    return value;
+  }
+
+  private long readLong() throws IllegalArgumentException, IOException {
+    require(8);
+    long value = view.getLong(position);
+    position += 8;
+    return value;
+  }
+
+  private String readString() throws IllegalArgumentException, IOException {
+    int length = readInt();
+    if (length < 0 || length > BUFFER_SIZE) {
+      throw new IllegalArgumentException("Invalid project file: bad length of a name");
+    }
+    require(length);
+    String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  /**
+   * Moves to the given offset of the file, dropping everything in the buffer.
+   */
+  private void seek(FileChannel file, long offset) throws IOException {
+    file.position(offset);
+    base = offset;
+    position = 0;
+    limit = 0;
+  }
+
+  /**
+   * Reads more of the file until the buffer holds at least the given number of bytes.
+   * @throws IllegalArgumentException if the file ends first.
+   */
+  private void require(int bytes) throws IllegalArgumentException, IOException {
+    if (limit - position >= bytes) {
+      return;
+    }
+    System.arraycopy(buffer, position, buffer, 0, limit - position);
+    base += position;
+    limit -= position;
+    position = 0;
+    while (limit < bytes) {
+      view.limit(BUFFER_SIZE).position(limit);
+      int read = in.read(view);
+      view.clear();
+      if (read < 0) {
+        throw new IllegalArgumentException("Invalid project file: the file ends early");
+      }
+      limit += read;
+    }
+  }
+}
@@ -0,0 +1,292 @@
+package utils;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+import model.ILayer;
+import model.IRaster;
+
+/**
+ * The ProjectEncoder to be used to write a project to a binary project file.
+ * A binary project file holds, with every number written big-endian,
+ * <li> a header: the magic bytes, the version of the format, the name of the project,
+ * its width and height, and the number of its layers </li>
+ * <li> a chunk for every layer from the bottom up: its name, the name of its filter,
+ * its bounds as x, y, width and height, the encoding of its pixels, and the packed ARGB
+ * values of the pixels inside its bounds row by row </li>
+ * <li> an index of the offset and length of every chunk in the file </li>
+ * <li> a trailer: the offset of the index and the magic bytes of the index </li>
+ * A string is written as the length of its UTF-8 bytes followed by the bytes.
+ * Raw pixels start at an offset which is a multiple of 4 so they can be read as ints in place,
+ * and compressed pixels are deflated and follow the length of the compressed bytes.
+ * The pixels of the layers are encoded in pieces on a pool of threads, and the pieces are
+ * written in order into one buffer of bytes which is written out whenever it fills up.
+ * The ProjectEncoder class allows to
+ * <li> write the header of a project </li>
+ * <li> write the layers of a project as chunks </li>
+ * <li> write the index and trailer once every layer is written </li>
+ */
+final class ProjectEncoder {
+  static final byte[] MAGIC = {(byte) 0x89, 'C', 'L', 'G'};
+  static final int INDEX_MAGIC = 0x434c4749; // "CLGI"
+  static final int VERSION = 1;
+  static final byte RAW = 0;
+  static final byte DEFLATE = 1;
+  private static final int BUFFER_SIZE = 1 << 16;
+  // the most raw pixels encoded in one piece of a chunk
+  private static final int BAND_PIXELS = 1 << 20;
+
+  private final OutputStream out;
+  private final boolean compress;
+  private final byte[] buffer;
+  private final ByteBuffer view;
+  private int position;
+  // the number of bytes written out before the buffer
+  private long flushed;
+  // the offset and length of every chunk written so far
+  private final List<long[]> index;
+  // the offset of the chunk being written
+  private long chunkStart;
+
+  /**
+   * Constructor for a ProjectEncoder.
+   * Creates a {@code ProjectEncoder} which writes to the given stream.
+   * @param out the stream the file is written to.
+   * @param compress true to deflate the pixels of every layer, false to write them raw.
+   */
+  ProjectEncoder(OutputStream out, boolean compress) {
+    this.out = out;
+    this.compress = compress;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.view = ByteBuffer.wrap(buffer);
+    this.position = 0;
+    this.flushed = 0;
+    this.index = new ArrayList<>();
+    this.chunkStart = 0;
+  }
+
+  /**
+   * Writes the header of the file.
+   * @param name the name of the project.
+   * @param width the width of the project.
+   * @param height the height of the project.
+   * @param layers the number of layers which will be written.
+   * @throws IOException if the header cannot be written.
+   */
+  void writeHeader(String name, int width, int height, int layers) throws IOException {
+    put(MAGIC, 0, MAGIC.length);
+    putInt(VERSION);
+    putString(name);
+    putInt(width);
+    putInt(height);
+    putInt(layers);
+  }
+
+  /**
+   * Writes the layers as the next chunks of the file, with only the pixels inside their bounds.
+   * The raw pixels of a layer are encoded in bands of rows, and compressed pixels a layer at
+   * a time, on the given pool, and every chunk is written out in order as its pixels are ready.
+   * @param layers the layers to be written, from the bottom up.
+   * @param pool the pool the pixels are encoded on.
+   * @throws IOException if a chunk cannot be written.
+   */
+  void writeLayers(List<ILayer> layers, ForkJoinPool pool) throws IOException {
+    List<Piece> pieces = new ArrayList<>();
+    for (ILayer layer : layers) {
+      Rectangle bounds = layer.getBounds();
+      IRaster image = layer.getRaster();
+      int rows = compress || bounds.isEmpty() ? Math.max(bounds.height, 1)
+              : Math.max(1, BAND_PIXELS / bounds.width);
+      // an empty layer still has one piece, without pixels, to write its chunk
+      int top = bounds.y;
+      do {
+        int count = Math.min(rows, bounds.y + bounds.height - top);
+        pieces.add(new Piece(layer, image, bounds, top, count));
+        top += rows;
+      } while (top < bounds.y + bounds.height);
+    }
+    ChunkPipeline.run(pool, pieces, (i, bytes) -> {
+      Piece piece = pieces.get(i);
+      Rectangle bounds = piece.bounds;
+      if (piece.top == bounds.y) {
+        chunkStart = offset();
+        writeChunkHeader(piece.layer, bounds);
+        if (compress && !bounds.isEmpty()) {
+          putInt(bytes.length);
+        } else {
+          // raw pixels start at a multiple of 4
+          while ((offset() & 3) != 0) {
+            require(1);
+            buffer[position++] = 0;
+          }
+        }
+      }
+      put(bytes, 0, bytes.length);
+      if (piece.top + piece.count == bounds.y + bounds.height) {
+        index.add(new long[]{chunkStart, offset() - chunkStart});
+      }
+    });
+  }
+
+  /**
+   * Writes the name, filter, bounds and encoding of a layer which start its chunk.
+   */
+  private void writeChunkHeader(ILayer layer, Rectangle bounds) throws IOException {
+    putString(layer.getName());
+    putString(layer.getFilter().toString());
+    putInt(bounds.x);
+    putInt(bounds.y);
+    putInt(bounds.width);
+    putInt(bounds.height);
+    require(1);
+    buffer[position++] = compress ? DEFLATE : RAW;
+  }
+
+  /**
+   * Writes the index and the trailer of the file and everything left in the buffer.
+   * @throws IOException if the index cannot be written.
+   */
+  void finish() throws IOException {
+    long start = offset();
+    putInt(index.size());
+    for (long[] chunk : index) {
+      putLong(chunk[0]);
+      putLong(chunk[1]);
+    }
+    putLong(start);
+    putInt(INDEX_MAGIC);
+    flush();
+  }
+
+  /**
+   * A band of rows of the pixels of a layer, which is encoded on its own.
+   */
+  private final class Piece implements Callable<byte[]> {
+    private final ILayer layer;
+    private final IRaster image;
+    private final Rectangle bounds;
+    private final int top;
+    private final int count;
+
+    Piece(ILayer layer, IRaster image, Rectangle bounds, int top, int count) {
+      this.layer = layer;
+      this.image = image;
+      this.bounds = bounds;
+      this.top = top;
+      this.count = count;
+    }
+
+    @Override
+    public byte[] call() {
+      if (count == 0) {
+        return new byte[0];
+      }
+      return compress ? deflate(image, bounds) : encodeRaw(image, bounds, top, count);
+    }
+  }
+
+  /**
+   * Encodes the pixels of the given rows inside the bounds as packed ARGB values.
+   */
+  private static byte[] encodeRaw(IRaster image, Rectangle bounds, int top, int count) {
+    byte[] bytes = new byte[count * bounds.width * 4];
+    IntBuffer pixels = ByteBuffer.wrap(bytes).asIntBuffer();
+    int[] row = new int[bounds.width];
+    for (int i = top; i < top + count; i++) {
+      image.getRow(i, bounds.x, bounds.width, row, 0);
+      pixels.put(row);
+    }
+    return bytes;
+  }
+
+  /**
+   * Deflates the pixels inside the bounds.
+   */
+  private static byte[] deflate(IRaster image, Rectangle bounds) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+    int[] row = new int[bounds.width];
+    byte[] bytes = new byte[bounds.width * 4];
+    ByteBuffer rowView = ByteBuffer.wrap(bytes);
+    byte[] chunk = new byte[BUFFER_SIZE];
+    for (int i = bounds.y; i < bounds.y + bounds.height; i++) {
+      image.getRow(i, bounds.x, bounds.width, row, 0);
+      rowView.asIntBuffer().put(row);
+      deflater.setInput(bytes);
+      while (!deflater.needsInput()) {
+        deflated.write(chunk, 0, deflater.deflate(chunk));
+      }
+    }
+    deflater.finish();
+    while (!deflater.finished()) {
+      deflated.write(chunk, 0, deflater.deflate(chunk));
+    }
+    deflater.end();
+    return deflated.toByteArray();
+  }
+
+  /**
+   * Gets the offset in the file the next byte is written at.
+   */
+  private long offset() {
+    return flushed + position;
+  }
+
+  /**
+   * Makes room for at least the given number of bytes in the buffer.
+   */
+  private void require(int bytes) throws IOException {
+    if (position > BUFFER_SIZE - bytes) {
+      flush();
+    }
+  }
+
+  private void putInt(int value) throws IOException {
+    require(4);
+    view.putInt(position, value);
+    position += 4;
+  }
+
+  private void putLong(long value) throws IOException {
+    require(8);
+    view.putLong(position, value);
+    position += 8;
+  }
+
+  private void putString(String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    putInt(bytes.length);
+    put(bytes, 0, bytes.length);
+  }
+
+  private void put(byte[] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      require(1);
+      int run = Math.min(length, BUFFER_SIZE - position);
+      System.arraycopy(bytes, offset, buffer, position, run);
+      position += run;
+      offset += run;
+      length -= run;
+    }
+  }
+
+  /**
+   * Writes out everything in the buffer.
+   * @throws IOException if the buffer cannot be written.
+   */
+  private void flush() throws IOException {
+    out.write(buffer, 0, position);
+    flushed += position;
+    position = 0;
+  }
+}
@@ -0,0 +1,268 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import model.IModel;
+import model.IProject;
+import model.IRaster;
+import model.Project;
+import model.Raster;
+import model.SubRaster;
+import model.filters.FilterOptions;
+import model.filters.Normal;
+
+/**
+ * The ProjectTextDecoder to be used to read a project saved as plain text in one pass.
+ * The bytes of the file are read from a channel through one buffer and every token is parsed
+ * as it is read, so the file is never held as a string or split by a Scanner.
+ * The pixels of every layer are read a band of rows at a time and added to the layer
+ * as soon as the band is full, so no more than one band is held besides the project.
+ * A line which starts with a # is a comment and is skipped.
+ * The ProjectTextDecoder class allows to
+ * <li> read the header of a project saved as plain text </li>
+ * <li> read every layer of the file into a project </li>
+ */
+final class ProjectTextDecoder {
+  private static final int BUFFER_SIZE = 1 << 16;
+  // the number of rows of a layer read before they are added to the layer
+  private static final int BAND_HEIGHT = 64;
+
+  private final ReadableByteChannel in;
+  private final byte[] buffer;
+  private final ByteBuffer view;
+  private int position;
+  private int limit;
+  // true when the next byte starts a line
+  private boolean lineStart;
+  // a token read ahead to find out if it is a number, or null
+  private String pending;
+  // the bytes of the token being read
+  private byte[] token;
+  private final String name;
+  private final int width;
+  private final int height;
+
+  /**
+   * Constructor for a ProjectTextDecoder.
+   * Creates a {@code ProjectTextDecoder} and reads the header of the file.
+   * @param in the channel the file is read from.
+   * @throws IllegalArgumentException if the header is not a valid header of a project.
+   * @throws IOException if the header cannot be read.
+   */
+  ProjectTextDecoder(ReadableByteChannel in) throws IllegalArgumentException, IOException {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.view = ByteBuffer.wrap(buffer);
+    this.position = 0;
+    this.limit = 0;
+    this.lineStart = true;
+    this.pending = null;
+    this.token = new byte[64];
+    this.name = nextToken();
+    this.width = readInt();
+    this.height = readInt();
+    readInt(); // the maximum value of a component, which is always 255
+    if (name == null || width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Invalid project file: bad name, width, or height");
+    }
+  }
+
+  /**
+   * Reads every layer of the file into a new project.
+   * A layer is its name, then its filter and its bounds, then the red, green, blue and alpha
+   * values of every pixel inside its bounds. A layer saved without bounds covers the project.
+   * @param model the model the filters of the layers are found with by their names.
+   * @return the project of the file.
+   * @throws IllegalArgumentException if the file is not a valid project file.
+   * @throws IOException if the file cannot be read.
+   */
+  IProject readProject(IModel model) throws IllegalArgumentException, IOException {
+    Project proj = new Project(name, height, width);
+    for (String layerName = nextToken(); layerName != null; layerName = nextToken()) {
+      FilterOptions opt = new Normal();
+      int x = 0;
+      int y = 0;
+      int w = width;
+      int h = height;
+      for (String next = nextToken(); next != null; next = nextToken()) {
+        if (isInt(next)) {
+          pending = next;
+          break;
+        } else if (next.equals("bounds")) {
+          x = readInt();
+          y = readInt();
+          w = readInt();
+          h = readInt();
+          // the bounds end the header of a layer, whose pixels may be left out when it is empty
+          break;
+        }
+        opt = model.getFilterOptionsObject(next);
+      }
+      proj.addLayer(layerName);
+      if (w > 0 && h > 0) {
+        readImage(proj, layerName, x, y, w, h);
+      }
+      proj.setFilter(layerName, opt);
+    }
+    return proj;
+  }
+
+  /**
+   * Reads the pixels of a layer a band of rows at a time, adding every band to the layer.
+   */
+  private void readImage(IProject proj, String layerName, int x, int y, int w, int h)
+          throws IllegalArgumentException, IOException {
+    int rows = Math.min(BAND_HEIGHT, h);
+    IRaster band = new Raster(rows, w);
+    int[] row = new int[w];
+    for (int top = 0; top < h; top += rows) {
+      int count = Math.min(rows, h - top);
+      for (int i = 0; i < count; i++) {
+        for (int j = 0; j < w; j++) {
+          int r = readInt();
+          int g = readInt();
+          int b = readInt();
+          int a = readInt();
+          row[j] = Raster.pack(r, g, b, a);
+        }
+        band.setRow(i, 0, w, row, 0);
+      }
+      proj.addImageToLayer(layerName, count == rows ? band : new SubRaster(band, 0, 0, count, w),
+              x, y + top);
+    }
+  }
+
+  /**
+   * Tells if a token is a whole number, as the project format writes them.
+   */
+  private static boolean isInt(String text) {
+    int start = text.charAt(0) == '-' ? 1 : 0;
+    if (start == text.length() || text.length() - start > 10) {
+      return false;
+    }
+    for (int i = start; i < text.length(); i++) {
+      if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+        return false;
+      }
+    }
+    long value = Long.parseLong(text);
+    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Reads the next token as a whole number, parsed from its digits without building a string.
+   * The whitespace byte which ends the number is dropped.
+   * @throws IllegalArgumentException if the file ends or the token is not a whole number.
+   */
+  private int readInt() throws IllegalArgumentException, IOException {
+    if (pending != null) {
+      String next = pending;
+      pending = null;
+      if (!isInt(next)) {
+        throw new IllegalArgumentException("Invalid project file: expected a number");
+      }
+      return Integer.parseInt(next);
+    }
+    int c = skipSpace();
+    if (c < 0) {
+      throw new IllegalArgumentException("Invalid project file: the file ends early");
+    }
+    boolean negative = c == '-';
+    if (negative) {
+      c = read();
+    }
+    if (c < '0' || c > '9') {
+      throw new IllegalArgumentException("Invalid project file: expected a number");
+    }
+    long value = 0;
+    while (c >= '0' && c <= '9') {
+      value = value * 10 + (c - '0');
+      if (value > Integer.MAX_VALUE + 1L) {
+        throw new IllegalArgumentException("Invalid project file: number too large");
+      }
+      c = read();
+    }
+    if (c >= 0 && !isSpace(c)) {
+      throw new IllegalArgumentException("Invalid project file: expected a number");
+    }
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid project file: number too large");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Reads the next token as a string.
+   * @return the token, or null at the end of the file.
+   */
+  private String nextToken() throws IOException {
+    if (pending != null) {
+      String next = pending;
+      pending = null;
+      return next;
+    }
+    int c = skipSpace();
+    if (c < 0) {
+      return null;
+    }
+    int length = 0;
+    while (c >= 0 && !isSpace(c)) {
+      if (length == token.length) {
+        token = Arrays.copyOf(token, length * 2);
+      }
+      token[length++] = (byte) c;
+      c = read();
+    }
+    return new String(token, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Skips whitespace and comment lines.
+   * @return the first byte of the next token, or -1 at the end of the file.
+   */
+  private int skipSpace() throws IOException {
+    while (true) {
+      boolean atLineStart = lineStart;
+      int c = read();
+      if (c == '#' && atLineStart) {
+        while (c >= 0 && c != '\n') {
+          c = read();
+        }
+      }
+      if (c < 0 || !isSpace(c)) {
+        return c;
+      }
+    }
+  }
+
+  private static boolean isSpace(int c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+  }
+
+  /**
+   * Reads the next byte of the file.
+   * @return the byte, or -1 at the end of the file.
+   */
+  private int read() throws IOException {
+    if (position == limit) {
+      view.clear();
+      int read = in.read(view);
+      while (read == 0) {
+        read = in.read(view);
+      }
+      position = 0;
+      limit = Math.max(read, 0);
+      if (read < 0) {
+        return -1;
+      }
+    }
+    int c = buffer[position++] & 0xff;
+    lineStart = c == '\n';
+    return c;
+  }
+}
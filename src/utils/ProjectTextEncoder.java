@@ -0,0 +1,134 @@
+package utils;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import model.ILayer;
+import model.IRaster;
+
+/**
+ * The ProjectTextEncoder to be used to write a project to a project file as plain text.
+ * A project saved as plain text holds its name, its width and height, and the maximum value
+ * of a component, then every layer from the bottom up as its name, its filter and its bounds
+ * followed by the red, green, blue and alpha values of every pixel inside its bounds.
+ * The digits of the pixels of the layers are made in bands of rows on a pool of threads,
+ * since that is most of the work, and the bands are written out in order as they are ready.
+ * The ProjectTextEncoder class allows to
+ * <li> write the header of a project </li>
+ * <li> write the layers of a project </li>
+ */
+final class ProjectTextEncoder {
+  // the most pixels whose digits are made in one band
+  private static final int BAND_PIXELS = 1 << 18;
+  // the most bytes written for a pixel, four values of three digits and a space each
+  private static final int PIXEL_BYTES = 16;
+
+  private final OutputStream out;
+
+  /**
+   * Constructor for a ProjectTextEncoder.
+   * Creates a {@code ProjectTextEncoder} which writes to the given stream.
+   * @param out the stream the file is written to.
+   */
+  ProjectTextEncoder(OutputStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes the header of the file.
+   * @param name the name of the project.
+   * @param width the width of the project.
+   * @param height the height of the project.
+   * @param maxValue the maximum value of a component.
+   * @throws IOException if the header cannot be written.
+   */
+  void writeHeader(String name, int width, int height, int maxValue) throws IOException {
+    out.write((name + "\n" + width + " " + height + "\n" + maxValue + "\n").getBytes());
+  }
+
+  /**
+   * Writes the layers with only the pixels inside their bounds.
+   * The digits of the pixels are made on the given pool, and every band is written out
+   * in order as it is ready.
+   * @param layers the layers to be written, from the bottom up.
+   * @param pool the pool the digits of the pixels are made on.
+   * @throws IOException if a layer cannot be written.
+   */
+  void writeLayers(List<ILayer> layers, ForkJoinPool pool) throws IOException {
+    List<Band> bands = new ArrayList<>();
+    for (ILayer layer : layers) {
+      Rectangle bounds = layer.getBounds();
+      IRaster image = layer.getRaster();
+      int rows = bounds.isEmpty() ? 1 : Math.max(1, BAND_PIXELS / bounds.width);
+      // an empty layer still has one band, without pixels, to write its name
+      int top = bounds.y;
+      do {
+        int count = Math.min(rows, bounds.y + bounds.height - top);
+        bands.add(new Band(layer, image, bounds, top, count));
+        top += rows;
+      } while (top < bounds.y + bounds.height);
+    }
+    ChunkPipeline.run(pool, bands, (i, bytes) -> {
+      Band band = bands.get(i);
+      Rectangle bounds = band.bounds;
+      if (band.top == bounds.y) {
+        ILayer layer = band.layer;
+        out.write((layer.getName() + " " + layer.getFilter().toString() + " bounds "
+                + bounds.x + " " + bounds.y + " " + bounds.width + " " + bounds.height + "\n")
+                .getBytes());
+      }
+      out.write(bytes);
+      // the project reader cannot skip an empty line
+      if (!bounds.isEmpty() && band.top + band.count == bounds.y + bounds.height) {
+        out.write('\n');
+      }
+    });
+  }
+
+  /**
+   * A band of rows of the pixels of a layer, whose digits are made on their own.
+   */
+  private static final class Band implements Callable<byte[]> {
+    private final ILayer layer;
+    private final IRaster image;
+    private final Rectangle bounds;
+    private final int top;
+    private final int count;
+
+    Band(ILayer layer, IRaster image, Rectangle bounds, int top, int count) {
+      this.layer = layer;
+      this.image = image;
+      this.bounds = bounds;
+      this.top = top;
+      this.count = count;
+    }
+
+    @Override
+    public byte[] call() {
+      byte[] bytes = new byte[count * bounds.width * PIXEL_BYTES];
+      int position = 0;
+      int[] row = new int[bounds.width];
+      for (int i = top; i < top + count; i++) {
+        image.getRow(i, bounds.x, bounds.width, row, 0);
+        for (int argb : row) {
+          position = put(bytes, position, PPMEncoder.DIGITS[(argb >> 16) & 0xff]);
+          position = put(bytes, position, PPMEncoder.DIGITS[(argb >> 8) & 0xff]);
+          position = put(bytes, position, PPMEncoder.DIGITS[argb & 0xff]);
+          position = put(bytes, position, PPMEncoder.DIGITS[argb >>> 24]);
+        }
+      }
+      return position == bytes.length ? bytes : Arrays.copyOf(bytes, position);
+    }
+
+    private static int put(byte[] bytes, int position, byte[] digits) {
+      System.arraycopy(digits, 0, bytes, position, digits.length);
+      return position + digits.length;
+    }
+  }
+}
@@ -4,6 +4,8 @@ import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
+import model.IRaster;
+
 
 /**
  * This interface represents a graphical view implementation for the image processor as opposed to
@@ -69,6 +71,17 @@ public interface IGUIView extends IView {
    */
   Integer getValue(String message);
 
+  /**
+   * Gets the raster the image on the image panel is drawn from, so the composed image can be
+   * rendered straight into it and shown with {@link #refresh()} without being converted.
+   * The same raster is handed out for as long as the size of the image stays the same.
+   * @param height the height of the image to be displayed.
+   * @param width the width of the image to be displayed.
+   * @return a raster backed by the pixels of the image on the image panel.
+   * @throws IllegalArgumentException if the given height or width is not positive.
+   */
+  IRaster getDisplay(int height, int width) throws IllegalArgumentException;
+
   /**
    * Takes in the given image and displays it on the image panel.
    * @param buff the given buffered image.
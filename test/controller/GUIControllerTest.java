@@ -8,12 +8,15 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
 
+import model.IBandWriter;
 import model.IPixel;
 import model.IProject;
+import model.IRaster;
 import model.Model;
 import model.IModel;
 import model.Pixel;
 import model.Project;
+import model.Raster;
 import model.filters.FilterOptions;
 import view.GUIView;
 import view.IGUIView;
@@ -66,6 +69,32 @@ public class GUIControllerTest {
       return pixels;
     }
 
+    @Override
+    public IRaster saveRaster() {
+      displayMessage("saveRaster invoked \n");
+      return new Raster(1, 1, Raster.TRANSPARENT);
+    }
+
+    @Override
+    public void renderImage(IRaster target) {
+      displayMessage("renderImage invoked \n");
+    }
+
+    @Override
+    public void renderBands(int bandHeight, IBandWriter writer) {
+      displayMessage("renderBands invoked \n");
+    }
+
+    @Override
+    public int getHeight() {
+      return 100;
+    }
+
+    @Override
+    public int getWidth() {
+      return 300;
+    }
+
     @Override
     public void addLayer(String layerName) throws IllegalArgumentException {
       displayMessage("addLayer invoked \n");
@@ -173,6 +202,12 @@ public class GUIControllerTest {
       displayMessage("setImage invoked \n");
     }
 
+    @Override
+    public IRaster getDisplay(int height, int width) {
+      displayMessage("getDisplay invoked \n");
+      return new Raster(height, width, Raster.TRANSPARENT);
+    }
+
     @Override
     public void renderMessage(String message) throws IOException {
       //empty
@@ -229,13 +264,13 @@ public class GUIControllerTest {
     ActionEvent action = new ActionEvent(new Object(), 1, "New Project Button");
     controller.actionPerformed(action);
     assertEquals("newProject invoked \n" +
-            "saveImage invoked \n" +
+            "renderImage invoked \n" +
             "getCurProject invoked \n", log.toString());
 
     assertEquals("getString invoked \n" +
             "getValue invoked \n" +
             "getValue invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "addLayerNametoList invoked \n" +
             "refresh invoked \n", log2.toString());
   }
@@ -251,11 +286,11 @@ public class GUIControllerTest {
     controller.actionPerformed(action);
 
     assertEquals("switchProject invoked \n" +
-            "saveImage invoked \n" +
+            "renderImage invoked \n" +
             "getCurProject invoked \n", log.toString());
 
     assertEquals("getFilePath invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "addLayerNametoList invoked \n" +
             "refresh invoked \n", log2.toString());
   }
@@ -284,9 +319,11 @@ public class GUIControllerTest {
     ActionEvent action = new ActionEvent(new Object(), 1, "Add Layer Button");
     controller.actionPerformed(action);
     assertEquals("addLayer invoked \n" +
+            "renderImage invoked \n" +
             "getCurProject invoked \n", log.toString());
 
     assertEquals("getString invoked \n" +
+            "getDisplay invoked \n" +
             "addLayerNametoList invoked \n" +
             "refresh invoked \n", log2.toString());
   }
@@ -301,13 +338,13 @@ public class GUIControllerTest {
     ActionEvent action = new ActionEvent(new Object(), 1, "Add Image to Layer Button");
     controller.actionPerformed(action);
     assertEquals("addImageToLayer invoked \n" +
-            "saveImage invoked \n", log.toString());
+            "renderImage invoked \n", log.toString());
 
     assertEquals("getFilePath invoked \n" +
             "getValue invoked \n" +
             "getValue invoked \n" +
             "getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -320,7 +357,7 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Save Image Button");
     controller.actionPerformed(action);
-    assertEquals("saveImage invoked \n", log.toString());
+    assertEquals("renderBands invoked \n", log.toString());
 
     assertEquals("getDirectory invoked \n", log2.toString());
   }
@@ -334,10 +371,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Normal Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -350,10 +387,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Red Component Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -366,10 +403,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Green Component Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -382,10 +419,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Blue Component Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -398,10 +435,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Brighten Value Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -414,10 +451,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Brighten Intensity Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -430,10 +467,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Brighten Luma Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -446,10 +483,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Darken Value Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -462,10 +499,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Darken Intensity Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -478,10 +515,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Darken Luma Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -494,10 +531,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Difference Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -510,10 +547,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Brighten Blend Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 
@@ -526,10 +563,10 @@ public class GUIControllerTest {
     IGUIController controller = new GUIController(model, view);
     ActionEvent action = new ActionEvent(new Object(), 1, "Darken Blend Button");
     controller.actionPerformed(action);
-    assertEquals("setFilter invoked \n" + "saveImage invoked \n", log.toString());
+    assertEquals("setFilter invoked \n" + "renderImage invoked \n", log.toString());
 
     assertEquals("getLayerSelected invoked \n" +
-            "setImage invoked \n" +
+            "getDisplay invoked \n" +
             "refresh invoked \n", log2.toString());
   }
 }
\ No newline at end of file
@@ -1,319 +1,656 @@
-package model;
-
-import org.junit.Before;
-import org.junit.Test;
-
-import java.io.FileNotFoundException;
-import java.util.List;
-
-import model.filters.BlueComponent;
-import model.filters.FilterOptions;
-import model.filters.RedComponent;
-import utils.ImageUtil;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotEquals;
-import static org.junit.Assert.fail;
-
-/**
- * A ProjectTest where we
- * test the Project class and all of its methods.
- * Project has a name, a list of layers, and the height and width of the project.
- * This tests for the allowance of the game to be played, including
- * <li> add a layer to a project </li>
- * <li> add an image to a layer in a project </li>
- * <li> set a filter to the layer </li>
- * <li> save a copy of the composed image </li>
- * <li> get the list of layers for a project, name, height, and width </li>
- */
-public class ProjectTest {
-  int maxValue;
-  int height;
-  int width;
-  IPixel pix;
-  IPixel pix2;
-  IPixel pix3;
-  IPixel redMax;
-  IPixel greenMax;
-  IPixel blueMax;
-  IPixel white;
-  IPixel black;
-  ILayer layer1;
-  ILayer layer2;
-  ILayer layer3;
-  ILayer layer4;
-  IPixel[][] image1;
-  IPixel[][] image2;
-  IProject project1;
-  IProject project2;
-  IModel model;
-
-  @Before
-  public void init() {
-    maxValue = 255;
-    height = 800;
-    width = 600;
-    pix = new Pixel(100, 20, 0, 123);
-    pix2 = new Pixel(100,150,200, 50);
-    pix3 = new Pixel(20,150,200, 50);
-    redMax = new Pixel(maxValue, 123, 26, 0);
-    greenMax = new Pixel(123, maxValue, 26, maxValue);
-    blueMax = new Pixel(26, 123, maxValue, 127);
-    white = new Pixel(maxValue, maxValue, maxValue, maxValue);
-    black = new Pixel(0, 0, 0, maxValue);
-    layer1 = new Layer("layer1", height, width);
-    layer2 = new Layer("layer2", 600, 400);
-    layer3 = new Layer("randomVals", 389, 635);
-    layer4 = new Layer("mini", 2, 4);
-    model = new Model();
-    try {
-      image1 = model.createImageFromBuff(ImageUtil.aPPMtoImage("tako.ppm"));
-    } catch (FileNotFoundException e) {
-      fail("Invalid file path.");
-    }
-    image2 = new Pixel[2][4];
-    image2[0][0] = pix;
-    image2[0][1] = pix2;
-    image2[0][2] = pix3;
-    image2[0][3] = redMax;
-    image2[1][0] = greenMax;
-    image2[1][1] = blueMax;
-    image2[1][2] = white;
-    image2[1][3] = black;
-
-    project1 = new Project("proj1", height, width);
-    project2 = new Project("proj2", 7548, 9742);
-  }
-
-  @Test
-  public void testInvalidConstruction() {
-    try {
-      new Project("proj1", -234, 467);
-      fail("Should throw IllegalArgumentException because height or width is not positive.");
-    } catch (IllegalArgumentException ignored) {
-    }
-    try {
-      new Project("proj1", 0, 574);
-      fail("Should throw IllegalArgumentException because height or width is not positive.");
-    } catch (IllegalArgumentException ignored) {
-    }
-    try {
-      new Project("proj1", 234, -467);
-      fail("Should throw IllegalArgumentException because height or width is not positive.");
-    } catch (IllegalArgumentException ignored) {
-    }
-    try {
-      new Project("proj1", 7895, 0);
-      fail("Should throw IllegalArgumentException because height or width is not positive.");
-    } catch (IllegalArgumentException ignored) {
-    }
-  }
-
-  @Test
-  public void testValidConstruction() {
-    try {
-      new Project("proj1", height, width);
-      new Project("proj2", 7548, 9742);
-    } catch (IllegalArgumentException e) {
-      fail("Reached a fail point. Should not throw an Exception.");
-    }
-  }
-
-  @Test
-  public void addLayer() {
-    project1.addLayer("Layer1");
-    project1.addImageToLayer("Layer1", image1, 0, 0);
-    List<ILayer> layerList = project1.getLayers();
-    IPixel[][] img = project1.getLayers().get(0).getImage();
-    assertEquals(1, layerList.size());
-    assertEquals("Layer1", layerList.get(0).getName());
-
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-  }
-
-
-  @Test
-  public void addImageToLayer() {
-    project1.addLayer("Layer1");
-    project1.addImageToLayer("Layer1", image2, 0, 0);
-
-    try {
-      project1.addImageToLayer("Layer2", image2, 0, 0); //Layer does not exist
-      fail("Should throw IllegalArgumentException because layer does not exist.");
-    } catch (IllegalArgumentException ignored) {
-    }
-
-
-    IPixel[][] img = project1.getLayers().get(0).getImage();
-    assertEquals(100, img[0][0].getR());
-    assertEquals(20, img[0][0].getG());
-    assertEquals(0, img[0][0].getB());
-    assertEquals(123, img[0][0].getA());
-
-    project1.addImageToLayer("Layer1", image1, 1, 2);
-    img = project1.getLayers().get(0).getImage();
-    assertEquals(100, img[0][0].getR());
-    assertEquals(20, img[0][0].getG());
-    assertEquals(0, img[0][0].getB());
-    assertEquals(123, img[0][0].getA());
-
-    assertEquals(255, img[1][2].getR());
-    assertEquals(255, img[1][2].getG());
-    assertEquals(255, img[1][2].getB());
-    assertEquals(255, img[1][2].getA());
-
-    project1.addImageToLayer("Layer1", image2, 0, 2);
-    img = project1.getLayers().get(0).getImage();
-    assertEquals(0, img[1][3].getR());
-    assertEquals(0, img[1][3].getG());
-    assertEquals(0, img[1][3].getB());
-    assertEquals(255, img[1][3].getA());
-
-    project1.addLayer("Layer2");
-    project1.addImageToLayer("Layer2", image1, 0, 0);
-    img = project1.getLayers().get(1).getImage();
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][2].getA());
-  }
-
-  @Test
-  public void setFilter() {
-    try {
-      project1.setFilter("Layer1", new RedComponent()); //Layer does not exist
-      fail("Should throw IllegalArgumentException because layer does not exist.");
-    } catch (IllegalArgumentException ignored) {
-    }
-
-    project1.addLayer("Layer1");
-    project1.addImageToLayer("Layer1", image2, 0, 0);
-    project1.setFilter("Layer1", new BlueComponent());
-
-    try {
-      project1.setFilter("Layer3", new RedComponent()); //Layer does not exist
-      fail("Should throw IllegalArgumentException because layer does not exist.");
-    } catch (IllegalArgumentException ignored) {
-    }
-
-    ILayer layer1 = project1.getLayers().get(0);
-    FilterOptions layer1Filter = layer1.getFilter();
-    assertEquals("blue-component", layer1Filter.toString());
-  }
-
-  @Test
-  public void saveImage() {
-    project1.addLayer("Layer1");
-    project1.addImageToLayer("Layer1", image2, 0, 0);
-
-    IPixel[][] copy = project1.saveImage();
-    IPixel[][] img = project1.getLayers().get(0).getImage();
-
-    assertNotEquals(copy, project1.saveImage());
-
-    assertEquals(img[0][0].getR(), copy[0][0].getR());
-    assertEquals(img[0][0].getG(), copy[0][0].getG());
-    assertEquals(img[0][0].getB(), copy[0][0].getB());
-    assertEquals(img[0][0].getA(), copy[0][0].getA());
-
-    assertEquals(img[0][1].getR(), copy[0][1].getR());
-    assertEquals(img[0][2].getG(), copy[0][2].getG());
-
-    //a = 0 -- so the image is transparent which means we should see the background which is white.
-    assertEquals(255, copy[0][3].getB());
-
-    assertEquals(img[1][0].getA(), copy[1][0].getA());
-    assertEquals(img[1][1].getR(), copy[1][1].getR());
-    assertEquals(img[1][2].getG(), copy[1][2].getG());
-    assertEquals(img[1][3].getB(), copy[1][3].getB());
-
-    project1.setFilter("Layer1", new RedComponent());
-    copy = project1.saveImage();
-    img = project1.getLayers().get(0).applyFilter(new Pixel[0][0]);
-
-    assertNotEquals(copy, project1.saveImage());
-
-    assertEquals(img[0][0].getR(), copy[0][0].getR());
-    assertEquals(img[0][0].getG(), copy[0][0].getG());
-    assertEquals(img[0][0].getB(), copy[0][0].getB());
-    assertEquals(img[0][0].getA(), copy[0][0].getA());
-
-    assertEquals(img[0][1].getR(), copy[0][1].getR());
-    assertEquals(img[0][2].getG(), copy[0][2].getG());
-
-    //a = 0 -- so the image is transparent which means we should see the background which is white.
-    assertEquals(255, copy[0][3].getB());
-
-    assertEquals(img[1][0].getA(), copy[1][0].getA());
-    assertEquals(img[1][1].getR(), copy[1][1].getR());
-    assertEquals(img[1][2].getG(), copy[1][2].getG());
-    assertEquals(img[1][3].getB(), copy[1][3].getB());
-
-    project1.addLayer("Layer2");
-    project1.addImageToLayer("Layer2", image2, 1, 2);
-    copy = project1.saveImage();
-
-    assertNotEquals(copy, project1.saveImage());
-
-    assertEquals(100, copy[0][0].getR());
-    assertEquals(0, copy[0][0].getG());
-    assertEquals(0, copy[0][0].getB());
-    assertEquals(123, copy[0][0].getA());
-
-    assertEquals(100, copy[0][1].getR());
-    assertEquals(0, copy[0][2].getG());
-
-    //a = 0 -- so the image is transparent which means we should see the background which is white.
-    assertEquals(255, copy[0][3].getB());
-
-    assertEquals(255, copy[1][0].getA());
-    assertEquals(26, copy[1][1].getR());
-    assertEquals(0, copy[1][2].getG());
-    assertEquals(0, copy[1][3].getB());
-
-  }
-
-  @Test
-  public void getLayers() {
-    project1.addLayer("Layer1");
-    project1.addImageToLayer("Layer1", image2, 0, 0);
-    project1.setFilter("Layer1", new BlueComponent());
-
-    ILayer layer1 = project1.getLayers().get(0);
-    assertEquals("Layer1",layer1.getName());
-
-    project1.addLayer("SecondLayer");
-    project1.addImageToLayer("SecondLayer", image2, 0, 0);
-
-    layer1 = project1.getLayers().get(0);
-    assertEquals("Layer1",layer1.getName());
-    ILayer layer2 = project1.getLayers().get(1);
-    assertEquals("SecondLayer",layer2.getName());
-  }
-
-  @Test
-  public void getName() {
-    assertEquals("proj1", project1.getName());
-    assertEquals("proj2", project2.getName());
-  }
-
-  @Test
-  public void getHeight() {
-    assertEquals(800, project1.getHeight());
-    assertEquals(7548, project2.getHeight());
-  }
-
-  @Test
-  public void getWidth() {
-    assertEquals(600, project1.getWidth());
-    assertEquals(9742, project2.getWidth());
-  }
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import model.filters.BlueComponent;
+import model.filters.BrightenLuma;
+import model.filters.DarkenBlend;
+import model.filters.Difference;
+import model.filters.FilterExecution;
+import model.filters.FilterOptions;
+import model.filters.RedComponent;
+import utils.ImageUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * A ProjectTest where we
+ * test the Project class and all of its methods.
+ * Project has a name, a list of layers, and the height and width of the project.
+ * This tests for the allowance of the game to be played, including
+ * <li> add a layer to a project </li>
+ * <li> add an image to a layer in a project </li>
+ * <li> set a filter to the layer </li>
+ * <li> save a copy of the composed image </li>
+ * <li> get the list of layers for a project, name, height, and width </li>
+ */
+public class ProjectTest {
+  int maxValue;
+  int height;
+  int width;
+  IPixel pix;
+  IPixel pix2;
+  IPixel pix3;
+  IPixel redMax;
+  IPixel greenMax;
+  IPixel blueMax;
+  IPixel white;
+  IPixel black;
+  ILayer layer1;
+  ILayer layer2;
+  ILayer layer3;
+  ILayer layer4;
+  IPixel[][] image1;
+  IPixel[][] image2;
+  IProject project1;
+  IProject project2;
+  IModel model;
+
+  @Before
+  public void init() {
+    maxValue = 255;
+    height = 800;
+    width = 600;
+    pix = new Pixel(100, 20, 0, 123);
+    pix2 = new Pixel(100,150,200, 50);
+    pix3 = new Pixel(20,150,200, 50);
+    redMax = new Pixel(maxValue, 123, 26, 0);
+    greenMax = new Pixel(123, maxValue, 26, maxValue);
+    blueMax = new Pixel(26, 123, maxValue, 127);
+    white = new Pixel(maxValue, maxValue, maxValue, maxValue);
+    black = new Pixel(0, 0, 0, maxValue);
+    layer1 = new Layer("layer1", height, width);
+    layer2 = new Layer("layer2", 600, 400);
+    layer3 = new Layer("randomVals", 389, 635);
+    layer4 = new Layer("mini", 2, 4);
+    model = new Model();
+    try {
+      image1 = model.createImageFromBuff(ImageUtil.aPPMtoImage("tako.ppm"));
+    } catch (FileNotFoundException e) {
+      fail("Invalid file path.");
+    }
+    image2 = new Pixel[2][4];
+    image2[0][0] = pix;
+    image2[0][1] = pix2;
+    image2[0][2] = pix3;
+    image2[0][3] = redMax;
+    image2[1][0] = greenMax;
+    image2[1][1] = blueMax;
+    image2[1][2] = white;
+    image2[1][3] = black;
+
+    project1 = new Project("proj1", height, width);
+    project2 = new Project("proj2", 7548, 9742);
+  }
+
+  @Test
+  public void testInvalidConstruction() {
+    try {
+      new Project("proj1", -234, 467);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+    try {
+      new Project("proj1", 0, 574);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+    try {
+      new Project("proj1", 234, -467);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+    try {
+      new Project("proj1", 7895, 0);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void testValidConstruction() {
+    try {
+      new Project("proj1", height, width);
+      new Project("proj2", 7548, 9742);
+    } catch (IllegalArgumentException e) {
+      fail("Reached a fail point. Should not throw an Exception.");
+    }
+  }
+
+  @Test
+  public void addLayer() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image1, 0, 0);
+    List<ILayer> layerList = project1.getLayers();
+    IPixel[][] img = project1.getLayers().get(0).getImage();
+    assertEquals(1, layerList.size());
+    assertEquals("Layer1", layerList.get(0).getName());
+
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+  }
+
+
+  @Test
+  public void addImageToLayer() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+
+    try {
+      project1.addImageToLayer("Layer2", image2, 0, 0); //Layer does not exist
+      fail("Should throw IllegalArgumentException because layer does not exist.");
+    } catch (IllegalArgumentException ignored) {
+    }
+
+
+    IPixel[][] img = project1.getLayers().get(0).getImage();
+    assertEquals(100, img[0][0].getR());
+    assertEquals(20, img[0][0].getG());
+    assertEquals(0, img[0][0].getB());
+    assertEquals(123, img[0][0].getA());
+
+    project1.addImageToLayer("Layer1", image1, 1, 2);
+    img = project1.getLayers().get(0).getImage();
+    assertEquals(100, img[0][0].getR());
+    assertEquals(20, img[0][0].getG());
+    assertEquals(0, img[0][0].getB());
+    assertEquals(123, img[0][0].getA());
+
+    assertEquals(255, img[1][2].getR());
+    assertEquals(255, img[1][2].getG());
+    assertEquals(255, img[1][2].getB());
+    assertEquals(255, img[1][2].getA());
+
+    project1.addImageToLayer("Layer1", image2, 0, 2);
+    img = project1.getLayers().get(0).getImage();
+    assertEquals(0, img[1][3].getR());
+    assertEquals(0, img[1][3].getG());
+    assertEquals(0, img[1][3].getB());
+    assertEquals(255, img[1][3].getA());
+
+    project1.addLayer("Layer2");
+    project1.addImageToLayer("Layer2", image1, 0, 0);
+    img = project1.getLayers().get(1).getImage();
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][2].getA());
+  }
+
+  @Test
+  public void setFilter() {
+    try {
+      project1.setFilter("Layer1", new RedComponent()); //Layer does not exist
+      fail("Should throw IllegalArgumentException because layer does not exist.");
+    } catch (IllegalArgumentException ignored) {
+    }
+
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+    project1.setFilter("Layer1", new BlueComponent());
+
+    try {
+      project1.setFilter("Layer3", new RedComponent()); //Layer does not exist
+      fail("Should throw IllegalArgumentException because layer does not exist.");
+    } catch (IllegalArgumentException ignored) {
+    }
+
+    ILayer layer1 = project1.getLayers().get(0);
+    FilterOptions layer1Filter = layer1.getFilter();
+    assertEquals("blue-component", layer1Filter.toString());
+  }
+
+  @Test
+  public void saveImage() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+
+    IPixel[][] copy = project1.saveImage();
+    IPixel[][] img = project1.getLayers().get(0).getImage();
+
+    assertNotEquals(copy, project1.saveImage());
+
+    assertEquals(img[0][0].getR(), copy[0][0].getR());
+    assertEquals(img[0][0].getG(), copy[0][0].getG());
+    assertEquals(img[0][0].getB(), copy[0][0].getB());
+    assertEquals(img[0][0].getA(), copy[0][0].getA());
+
+    assertEquals(img[0][1].getR(), copy[0][1].getR());
+    assertEquals(img[0][2].getG(), copy[0][2].getG());
+
+    //a = 0 -- so the image is transparent which means we should see the background which is white.
+    assertEquals(255, copy[0][3].getB());
+
+    assertEquals(img[1][0].getA(), copy[1][0].getA());
+    assertEquals(img[1][1].getR(), copy[1][1].getR());
+    assertEquals(img[1][2].getG(), copy[1][2].getG());
+    assertEquals(img[1][3].getB(), copy[1][3].getB());
+
+    project1.setFilter("Layer1", new RedComponent());
+    copy = project1.saveImage();
+    img = project1.getLayers().get(0).applyFilter(new Pixel[0][0]);
+
+    assertNotEquals(copy, project1.saveImage());
+
+    assertEquals(img[0][0].getR(), copy[0][0].getR());
+    assertEquals(img[0][0].getG(), copy[0][0].getG());
+    assertEquals(img[0][0].getB(), copy[0][0].getB());
+    assertEquals(img[0][0].getA(), copy[0][0].getA());
+
+    assertEquals(img[0][1].getR(), copy[0][1].getR());
+    assertEquals(img[0][2].getG(), copy[0][2].getG());
+
+    //a = 0 -- so the image is transparent which means we should see the background which is white.
+    assertEquals(255, copy[0][3].getB());
+
+    assertEquals(img[1][0].getA(), copy[1][0].getA());
+    assertEquals(img[1][1].getR(), copy[1][1].getR());
+    assertEquals(img[1][2].getG(), copy[1][2].getG());
+    assertEquals(img[1][3].getB(), copy[1][3].getB());
+
+    project1.addLayer("Layer2");
+    project1.addImageToLayer("Layer2", image2, 1, 2);
+    copy = project1.saveImage();
+
+    assertNotEquals(copy, project1.saveImage());
+
+    assertEquals(100, copy[0][0].getR());
+    assertEquals(0, copy[0][0].getG());
+    assertEquals(0, copy[0][0].getB());
+    assertEquals(123, copy[0][0].getA());
+
+    assertEquals(100, copy[0][1].getR());
+    assertEquals(0, copy[0][2].getG());
+
+    //a = 0 -- so the image is transparent which means we should see the background which is white.
+    assertEquals(255, copy[0][3].getB());
+
+    assertEquals(255, copy[1][0].getA());
+    assertEquals(26, copy[1][1].getR());
+    assertEquals(0, copy[1][2].getG());
+    assertEquals(0, copy[1][3].getB());
+
+  }
+
+  @Test
+  public void saveRaster() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+    project1.addLayer("Layer2");
+    project1.addImageToLayer("Layer2", Raster.fromPixels(image2), 1, 2);
+    project1.setFilter("Layer2", new RedComponent());
+
+    IRaster raster = project1.saveRaster();
+    IPixel[][] copy = project1.saveImage();
+    assertEquals(height, raster.getHeight());
+    assertEquals(width, raster.getWidth());
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 6; j++) {
+        assertEquals(copy[i][j].getR(), raster.getPixel(i, j).getR());
+        assertEquals(copy[i][j].getG(), raster.getPixel(i, j).getG());
+        assertEquals(copy[i][j].getB(), raster.getPixel(i, j).getB());
+        assertEquals(copy[i][j].getA(), raster.getPixel(i, j).getA());
+      }
+    }
+    //a = 0 -- so the image is transparent which means we should see the background which is white.
+    assertEquals(Raster.TRANSPARENT, raster.getARGB(0, 3));
+  }
+
+  @Test
+  public void saveRasterAfterChanges() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+    project1.addLayer("Layer2");
+    project1.addImageToLayer("Layer2", image2, 1, 0);
+    project1.setFilter("Layer2", new Difference());
+    IRaster before = project1.saveRaster();
+
+    // only the top layer changes, the layers below are reused
+    project1.setFilter("Layer2", new DarkenBlend());
+    IRaster after = project1.saveRaster();
+    IProject fresh = new Project("fresh", height, width);
+    fresh.addLayer("Layer1");
+    fresh.addImageToLayer("Layer1", image2, 0, 0);
+    fresh.addLayer("Layer2");
+    fresh.addImageToLayer("Layer2", image2, 1, 0);
+    fresh.setFilter("Layer2", new DarkenBlend());
+    IRaster expected = fresh.saveRaster();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), after.getARGB(i, j));
+      }
+    }
+
+    // a change to the bottom layer is seen by the layers above it
+    project1.getLayers().get(0).addImage(0, 0, new Raster(1, 2, Raster.pack(0, 0, 0, 255)));
+    fresh.addImageToLayer("Layer1", new Raster(1, 2, Raster.pack(0, 0, 0, 255)), 0, 0);
+    after = project1.saveRaster();
+    expected = fresh.saveRaster();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), after.getARGB(i, j));
+      }
+    }
+    assertNotEquals(before.getARGB(0, 1), after.getARGB(0, 1));
+  }
+
+  @Test
+  public void saveRasterInTiles() {
+    // tiles of two pixels composed on four threads give the same image as one big tile
+    IProject tiled = new Project("tiled", height, width,
+            new TileCompositor(new ForkJoinPool(4), 2));
+    IProject whole = new Project("whole", height, width,
+            new TileCompositor(new ForkJoinPool(1), 64));
+    for (IProject p : new IProject[]{tiled, whole}) {
+      p.addLayer("Layer1");
+      p.addImageToLayer("Layer1", image2, 0, 0);
+      p.addLayer("Layer2");
+      p.addImageToLayer("Layer2", image2, 1, 2);
+      p.setFilter("Layer2", new Difference());
+    }
+    IRaster expected = whole.saveRaster();
+    IRaster actual = tiled.saveRaster();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+    // the per-pixel kernels give the same image as the row kernels
+    FilterExecution.setRowKernels(false);
+    try {
+      IProject pixels = new Project("pixels", height, width,
+              new TileCompositor(new ForkJoinPool(1), 2));
+      pixels.addLayer("Layer1");
+      pixels.addImageToLayer("Layer1", image2, 0, 0);
+      pixels.addLayer("Layer2");
+      pixels.addImageToLayer("Layer2", image2, 1, 2);
+      pixels.setFilter("Layer2", new Difference());
+      actual = pixels.saveRaster();
+    } finally {
+      FilterExecution.setRowKernels(true);
+    }
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+    try {
+      new TileCompositor(new ForkJoinPool(1), 0);
+      fail("Should throw IllegalArgumentException because the tile size is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void saveRasterPlanar() {
+    IProject planar = new Project("planar", height, width, RasterLayout.PLANAR);
+    IProject packed = new Project("packed", height, width, RasterLayout.PACKED);
+    for (IProject p : new IProject[]{planar, packed}) {
+      p.addLayer("Layer1");
+      p.addImageToLayer("Layer1", image2, 0, 1);
+      p.setFilter("Layer1", new RedComponent());
+      p.addLayer("Layer2");
+      p.addImageToLayer("Layer2", image2, 2, 0);
+      p.setFilter("Layer2", new DarkenBlend());
+    }
+    IRaster expected = packed.saveRaster();
+    IRaster actual = planar.saveRaster();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void saveRasterOffHeap() {
+    IProject offHeap = new Project("offHeap", height, width, RasterLayout.OFF_HEAP);
+    IProject packed = new Project("packed", height, width, RasterLayout.PACKED);
+    for (IProject p : new IProject[]{offHeap, packed}) {
+      p.addLayer("Layer1");
+      p.addImageToLayer("Layer1", image2, 0, 1);
+      p.setFilter("Layer1", new BrightenLuma());
+      p.addLayer("Layer2");
+      p.addImageToLayer("Layer2", image2, 2, 0);
+      p.setFilter("Layer2", new Difference());
+    }
+    IRaster expected = packed.saveRaster();
+    IRaster actual = offHeap.saveRaster();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+
+    offHeap.close();
+    try {
+      actual.getARGB(0, 0);
+      fail("Read the composite of a closed project.");
+    } catch (IllegalStateException ignored) {
+    }
+  }
+
+  @Test
+  public void saveRasterMapped() throws IOException {
+    try (TileStore store = new TileStore(3)) {
+      IProject mapped = new Project("mapped", 150, 200, store);
+      IProject packed = new Project("packed", 150, 200, RasterLayout.PACKED);
+      IRaster sticker = new Raster(40, 90, Raster.pack(200, 100, 50, 120));
+      for (IProject p : new IProject[]{mapped, packed}) {
+        p.addLayer("Layer1");
+        p.addImageToLayer("Layer1", new Raster(150, 200, Raster.pack(10, 20, 30, 255)), 0, 0);
+        p.addLayer("Layer2");
+        p.addImageToLayer("Layer2", sticker, 100, 30);
+        p.setFilter("Layer2", new BrightenLuma());
+      }
+      IRaster expected = packed.saveRaster();
+      IRaster actual = mapped.saveRaster();
+      for (int i = 0; i < 150; i++) {
+        for (int j = 0; j < 200; j++) {
+          assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+        }
+      }
+      assertEquals(3, store.getResidentCount());
+
+      mapped.close();
+      assertEquals(0, store.getTileCount());
+    }
+  }
+
+  @Test
+  public void renderBands() throws IOException {
+    IProject proj = new Project("bands", 150, 200, RasterLayout.TILED,
+            new TileCompositor(new ForkJoinPool(4), 32));
+    proj.addLayer("Layer1");
+    proj.addImageToLayer("Layer1", new Raster(150, 200, Raster.pack(10, 20, 30, 255)), 0, 0);
+    proj.addLayer("Layer2");
+    proj.addImageToLayer("Layer2", new Raster(40, 90, Raster.pack(200, 100, 50, 120)), 100, 30);
+    proj.setFilter("Layer2", new Difference());
+    proj.addLayer("Layer3");
+    proj.addImageToLayer("Layer3", image2, 3, 60);
+    proj.setFilter("Layer3", new DarkenBlend());
+    IRaster expected = proj.saveRaster();
+    for (int bandHeight : new int[]{1, 7, 64, 1000}) {
+      int[] next = {0};
+      proj.renderBands(bandHeight, (band, row) -> {
+        assertEquals(next[0], row);
+        assertEquals(Math.min(bandHeight, 150 - row), band.getHeight());
+        for (int i = 0; i < band.getHeight(); i++) {
+          for (int j = 0; j < 200; j++) {
+            assertEquals(expected.getARGB(row + i, j), band.getARGB(i, j));
+          }
+        }
+        next[0] += band.getHeight();
+      });
+      assertEquals(150, next[0]);
+    }
+
+    try {
+      proj.renderBands(0, (band, row) -> fail("Rendered a band of no rows."));
+      fail("Invalid band height.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void renderInto() {
+    IProject proj = new Project("display", 150, 200, RasterLayout.PACKED);
+    IProject fresh = new Project("fresh", 150, 200, RasterLayout.PACKED);
+    int[] data = new int[150 * 200];
+    IRaster display = new Raster(150, 200, data);
+    for (IProject p : new IProject[]{proj, fresh}) {
+      p.addLayer("Layer1");
+      p.addImageToLayer("Layer1", new Raster(150, 200, Raster.pack(10, 20, 30, 255)), 0, 0);
+      p.addLayer("Layer2");
+      p.addImageToLayer("Layer2", new Raster(40, 90, Raster.pack(200, 100, 50, 120)), 100, 30);
+    }
+    proj.renderInto(display);
+    IRaster before = proj.saveRaster();
+    assertEquals(fresh.saveRaster().getARGB(50, 120), data[50 * 200 + 120]);
+
+    // only the changed region is composed again, straight into the same array
+    for (IProject p : new IProject[]{proj, fresh}) {
+      p.addImageToLayer("Layer2", new Raster(10, 10, Raster.pack(0, 255, 0, 255)), 5, 5);
+      p.setFilter("Layer1", new Difference());
+    }
+    proj.renderInto(display);
+    IRaster expected = fresh.saveRaster();
+    for (int i = 0; i < 150; i++) {
+      for (int j = 0; j < 200; j++) {
+        assertEquals(expected.getARGB(i, j), data[i * 200 + j]);
+      }
+    }
+    // a raster handed out before is not changed by rendering into the display
+    assertNotEquals(expected.getARGB(7, 7), before.getARGB(7, 7));
+    assertEquals(Raster.pack(10, 20, 30, 255), before.getARGB(7, 7));
+
+    try {
+      proj.renderInto(new Raster(150, 199));
+      fail("Rendered into a raster of the wrong size.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void renderIntoAcrossLayers() {
+    IProject proj = new Project("display", 60, 80);
+    IProject fresh = new Project("fresh", 60, 80);
+    int[] data = new int[60 * 80];
+    IRaster display = new Raster(60, 80, data);
+    for (IProject p : new IProject[]{proj, fresh}) {
+      p.addLayer("blue");
+      p.addImageToLayer("blue", new Raster(60, 80, Raster.pack(0, 0, 255, 255)), 0, 0);
+    }
+    proj.renderInto(display);
+    for (int step = 0; step < 4; step++) {
+      for (IProject p : new IProject[]{proj, fresh}) {
+        if (step == 0) {
+          // the composite on screen becomes the level below the new layer
+          p.addLayer("red");
+          p.addImageToLayer("red", new Raster(20, 30, Raster.pack(255, 0, 0, 255)), 10, 10);
+        } else if (step == 1) {
+          p.addImageToLayer("red", new Raster(5, 5, Raster.pack(255, 0, 0, 255)), 70, 50);
+        } else if (step == 2) {
+          p.setFilter("red", new Difference());
+        } else {
+          p.addImageToLayer("blue", new Raster(8, 8, Raster.pack(9, 17, 231, 255)), 0, 0);
+        }
+      }
+      proj.renderInto(display);
+      IRaster expected = fresh.saveRaster();
+      for (int i = 0; i < 60; i++) {
+        for (int j = 0; j < 80; j++) {
+          assertEquals(expected.getARGB(i, j), data[i * 80 + j]);
+        }
+      }
+    }
+    IRaster saved = proj.saveRaster();
+    for (int i = 0; i < 60; i++) {
+      for (int j = 0; j < 80; j++) {
+        assertEquals(data[i * 80 + j], saved.getARGB(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void saveRasterTiledInParallel() {
+    // compositor tiles which do not line up with the tiles of the rasters
+    IProject tiled = new Project("tiled", 150, 200, RasterLayout.TILED,
+            new TileCompositor(new ForkJoinPool(4), 7));
+    IProject packed = new Project("packed", 150, 200, RasterLayout.PACKED,
+            new TileCompositor(new ForkJoinPool(1), 1000));
+    IRaster sticker = new Raster(40, 90, Raster.pack(200, 100, 50, 120));
+    for (IProject p : new IProject[]{tiled, packed}) {
+      p.addLayer("Layer1");
+      p.addImageToLayer("Layer1", new Raster(150, 200, Raster.pack(10, 20, 30, 255)), 0, 0);
+      p.addLayer("Layer2");
+      p.addImageToLayer("Layer2", sticker, 60, 30);
+      p.setFilter("Layer2", new BrightenLuma());
+      p.addLayer("Layer3");
+      p.addImageToLayer("Layer3", sticker, 130, 100);
+      p.setFilter("Layer3", new Difference());
+    }
+    for (int round = 0; round < 2; round++) {
+      IRaster expected = packed.saveRaster();
+      IRaster actual = tiled.saveRaster();
+      for (int i = 0; i < 150; i++) {
+        for (int j = 0; j < 200; j++) {
+          assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+        }
+      }
+      tiled.addImageToLayer("Layer1", sticker, 3, 64);
+      packed.addImageToLayer("Layer1", sticker, 3, 64);
+    }
+  }
+
+  @Test
+  public void getLayers() {
+    project1.addLayer("Layer1");
+    project1.addImageToLayer("Layer1", image2, 0, 0);
+    project1.setFilter("Layer1", new BlueComponent());
+
+    ILayer layer1 = project1.getLayers().get(0);
+    assertEquals("Layer1",layer1.getName());
+
+    project1.addLayer("SecondLayer");
+    project1.addImageToLayer("SecondLayer", image2, 0, 0);
+
+    layer1 = project1.getLayers().get(0);
+    assertEquals("Layer1",layer1.getName());
+    ILayer layer2 = project1.getLayers().get(1);
+    assertEquals("SecondLayer",layer2.getName());
+  }
+
+  @Test
+  public void getName() {
+    assertEquals("proj1", project1.getName());
+    assertEquals("proj2", project2.getName());
+  }
+
+  @Test
+  public void getHeight() {
+    assertEquals(800, project1.getHeight());
+    assertEquals(7548, project2.getHeight());
+  }
+
+  @Test
+  public void getWidth() {
+    assertEquals(600, project1.getWidth());
+    assertEquals(9742, project2.getWidth());
+  }
 }
\ No newline at end of file
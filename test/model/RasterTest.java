@@ -0,0 +1,364 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A RasterTest where we
+ * test the Raster class and all of its methods.
+ * Raster stores an image as one packed ARGB int per pixel.
+ * The Raster class allows to
+ * <li> get and set the packed ARGB value of a pixel </li>
+ * <li> convert to and from a 2D array of pixels </li>
+ * <li> pack and unpack the red, green, blue, and alpha components of a pixel </li>
+ * <li> brighten or darken a packed pixel and find its value, intensity, and luma </li>
+ */
+public class RasterTest {
+  IPixel pix;
+  IPixel pix2;
+  IPixel redMax;
+  IPixel black;
+  IPixel[][] image;
+  IRaster raster;
+
+  @Before
+  public void init() {
+    pix = new Pixel(100, 20, 0, 123);
+    pix2 = new Pixel(100, 150, 200, 50);
+    redMax = new Pixel(255, 123, 26, 0);
+    black = new Pixel(0, 0, 0, 255);
+    image = new Pixel[2][2];
+    image[0][0] = pix;
+    image[0][1] = pix2;
+    image[1][0] = redMax;
+    image[1][1] = black;
+    raster = Raster.fromPixels(image);
+  }
+
+  @Test
+  public void testInvalidConstruction() {
+    try {
+      new Raster(-3, 4);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+    try {
+      new Raster(3, 0, Raster.TRANSPARENT);
+      fail("Should throw IllegalArgumentException because height or width is not positive.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void testFill() {
+    IRaster filled = new Raster(3, 5, Raster.TRANSPARENT);
+    assertEquals(3, filled.getHeight());
+    assertEquals(5, filled.getWidth());
+    assertEquals(255, filled.getPixel(2, 4).getR());
+    assertEquals(255, filled.getPixel(2, 4).getG());
+    assertEquals(255, filled.getPixel(2, 4).getB());
+    assertEquals(0, filled.getPixel(2, 4).getA());
+  }
+
+  @Test
+  public void testPackAndUnpack() {
+    int argb = Raster.pack(100, 20, 0, 123);
+    assertEquals(100, Raster.red(argb));
+    assertEquals(20, Raster.green(argb));
+    assertEquals(0, Raster.blue(argb));
+    assertEquals(123, Raster.alpha(argb));
+    assertEquals(255, Raster.alpha(Raster.pack(0, 0, 0, 255)));
+  }
+
+  @Test
+  public void testFromAndToPixels() {
+    assertEquals(Raster.pack(100, 150, 200, 50), raster.getARGB(0, 1));
+    IPixel[][] pixels = raster.toPixels();
+    assertNotSame(image, pixels);
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 2; j++) {
+        assertEquals(image[i][j].getR(), pixels[i][j].getR());
+        assertEquals(image[i][j].getG(), pixels[i][j].getG());
+        assertEquals(image[i][j].getB(), pixels[i][j].getB());
+        assertEquals(image[i][j].getA(), pixels[i][j].getA());
+      }
+    }
+  }
+
+  @Test
+  public void testCopy() {
+    IRaster copy = raster.copy();
+    copy.setARGB(0, 0, Raster.pack(1, 2, 3, 4));
+    assertEquals(Raster.pack(1, 2, 3, 4), copy.getARGB(0, 0));
+    assertEquals(Raster.pack(100, 20, 0, 123), raster.getARGB(0, 0));
+  }
+
+  @Test
+  public void testWrap() {
+    int[] data = new int[7 * 5 + 3];
+    IRaster wrapped = new Raster(7, 5, data);
+    wrapped.setARGB(2, 3, Raster.pack(1, 2, 3, 4));
+    assertEquals(Raster.pack(1, 2, 3, 4), data[2 * 5 + 3]);
+    data[6 * 5 + 4] = Raster.pack(5, 6, 7, 8);
+    assertEquals(Raster.pack(5, 6, 7, 8), wrapped.getARGB(6, 4));
+    assertEquals(Raster.pack(5, 6, 7, 8), wrapped.copy().getARGB(6, 4));
+
+    try {
+      new Raster(7, 5, new int[34]);
+      fail("Wrapped an array too short for the raster.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void testMatchesPixel() {
+    for (IPixel[] row : image) {
+      for (IPixel p : row) {
+        int argb = Raster.pack(p.getR(), p.getG(), p.getB(), p.getA());
+        assertEquals(p.maxRGB(), Raster.maxRGB(argb));
+        assertEquals(p.intensityValue(), Raster.intensityValue(argb));
+        assertEquals(p.lumaValue(), Raster.lumaValue(argb));
+        IPixel bright = p.brighten(p.lumaValue());
+        assertEquals(Raster.pack(bright.getR(), bright.getG(), bright.getB(), bright.getA()),
+                Raster.brighten(argb, p.lumaValue()));
+        IPixel dark = p.darken(p.maxRGB());
+        assertEquals(Raster.pack(dark.getR(), dark.getG(), dark.getB(), dark.getA()),
+                Raster.darken(argb, p.maxRGB()));
+      }
+    }
+  }
+
+  @Test
+  public void testSubRaster() {
+    IRaster big = new Raster(4, 5, Raster.TRANSPARENT);
+    IRaster region = new SubRaster(big, 1, 2, 2, 3);
+    assertEquals(2, region.getHeight());
+    assertEquals(3, region.getWidth());
+    region.setARGB(1, 2, Raster.pack(1, 2, 3, 4));
+    assertEquals(Raster.pack(1, 2, 3, 4), big.getARGB(2, 4));
+    assertEquals(Raster.pack(1, 2, 3, 4), region.copy().getARGB(1, 2));
+    try {
+      new SubRaster(big, 3, 0, 2, 5);
+      fail("Should throw IllegalArgumentException because the region is outside the raster.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void testRows() {
+    IRaster big = new Raster(3, 4, Raster.TRANSPARENT);
+    big.setRow(1, 1, 2, new int[]{7, 8, 9}, 1);
+    assertEquals(8, big.getARGB(1, 1));
+    assertEquals(9, big.getARGB(1, 2));
+    assertEquals(Raster.TRANSPARENT, big.getARGB(1, 3));
+    int[] row = new int[3];
+    new SubRaster(big, 1, 1, 2, 3).getRow(0, 0, 2, row, 1);
+    assertEquals(0, row[0]);
+    assertEquals(8, row[1]);
+    assertEquals(9, row[2]);
+    try {
+      new ReadOnlyRaster(big).setRow(0, 0, 1, row, 0);
+      fail("Should throw IllegalStateException because the raster is a read-only snapshot.");
+    } catch (IllegalStateException ignored) {
+    }
+  }
+
+  @Test
+  public void testPlanar() {
+    IRaster planar = RasterLayout.PLANAR.create(3, 4, Raster.TRANSPARENT);
+    assertEquals(Raster.TRANSPARENT, planar.getARGB(2, 3));
+    assertTrue(planar.isClear(1, 0, 4));
+    planar.setARGB(1, 2, Raster.pack(100, 150, 200, 50));
+    assertEquals(Raster.pack(100, 150, 200, 50), planar.getARGB(1, 2));
+    assertEquals(150, planar.getPixel(1, 2).getG());
+    assertFalse(planar.isClear(1, 0, 4));
+    assertTrue(planar.isClear(1, 3, 1));
+    int[] row = new int[4];
+    planar.getRow(1, 0, 4, row, 0);
+    assertEquals(Raster.pack(100, 150, 200, 50), row[2]);
+    planar.setRow(0, 1, 2, new int[]{Raster.pack(1, 2, 3, 255), Raster.pack(4, 5, 6, 7)}, 0);
+    assertEquals(Raster.pack(4, 5, 6, 7), planar.getARGB(0, 2));
+
+    IRaster copy = planar.copy();
+    copy.setARGB(1, 2, 0);
+    assertEquals(Raster.pack(100, 150, 200, 50), planar.getARGB(1, 2));
+    IRaster green = planar.keepChannels(false, true, false);
+    assertEquals(Raster.pack(0, 150, 0, 50), green.getARGB(1, 2));
+    assertEquals(Raster.pack(0, 5, 0, 7), green.getARGB(0, 2));
+    try {
+      green.setARGB(0, 0, 0);
+      fail("Should throw IllegalStateException because the channels are shared.");
+    } catch (IllegalStateException ignored) {
+    }
+    IRaster redBlue = raster.keepChannels(true, false, true);
+    assertEquals(Raster.pack(100, 0, 200, 50), redBlue.getARGB(0, 1));
+  }
+
+  @Test
+  public void testTiled() {
+    TiledRaster tiled = new TiledRaster(100, 150, Raster.TRANSPARENT);
+    assertEquals(0, tiled.getTileCount());
+    assertEquals(Raster.TRANSPARENT, tiled.getARGB(99, 149));
+    assertTrue(tiled.isClear(50, 0, 150));
+    tiled.setARGB(70, 130, Raster.pack(1, 2, 3, 4));
+    assertEquals(1, tiled.getTileCount());
+    assertEquals(Raster.pack(1, 2, 3, 4), tiled.getARGB(70, 130));
+    assertFalse(tiled.isClear(70, 0, 150));
+    assertTrue(tiled.isClear(70, 0, 130));
+
+    // a run across three tiles
+    int[] row = new int[140];
+    for (int j = 0; j < 140; j++) {
+      row[j] = Raster.pack(j, 0, 0, 255);
+    }
+    tiled.setRow(10, 5, 140, row, 0);
+    assertEquals(4, tiled.getTileCount());
+    int[] back = new int[150];
+    tiled.getRow(10, 0, 150, back, 0);
+    assertEquals(Raster.TRANSPARENT, back[4]);
+    assertEquals(Raster.pack(0, 0, 0, 255), back[5]);
+    assertEquals(Raster.pack(139, 0, 0, 255), back[144]);
+    assertEquals(Raster.TRANSPARENT, back[145]);
+
+    // copies share tiles until one of them writes
+    TiledRaster copy = tiled.copy();
+    copy.setARGB(70, 130, 0);
+    assertEquals(Raster.pack(1, 2, 3, 4), tiled.getARGB(70, 130));
+    tiled.setARGB(10, 5, 0);
+    assertEquals(Raster.pack(0, 0, 0, 255), copy.getARGB(10, 5));
+
+    TiledRaster other = new TiledRaster(100, 150, Raster.TRANSPARENT);
+    other.copyRegion(tiled, 0, 0, 100, 100);
+    assertEquals(Raster.pack(5, 0, 0, 255), other.getARGB(10, 10));
+    assertEquals(Raster.TRANSPARENT, other.getARGB(70, 130));
+    other.setARGB(10, 10, 0);
+    assertEquals(Raster.pack(5, 0, 0, 255), tiled.getARGB(10, 10));
+  }
+
+  @Test
+  public void testOffHeap() {
+    OffHeapRaster off = new OffHeapRaster(3, 4, Raster.pack(1, 2, 3, 4));
+    assertEquals(Raster.pack(1, 2, 3, 4), off.getARGB(2, 3));
+    off.setARGB(1, 2, Raster.pack(5, 6, 7, 8));
+    assertEquals(Raster.pack(5, 6, 7, 8), off.getARGB(1, 2));
+    int[] row = new int[6];
+    off.getRow(1, 1, 3, row, 2);
+    assertEquals(Raster.pack(1, 2, 3, 4), row[2]);
+    assertEquals(Raster.pack(5, 6, 7, 8), row[3]);
+    row[4] = Raster.pack(9, 9, 9, 9);
+    off.setRow(0, 0, 3, row, 2);
+    assertEquals(Raster.pack(9, 9, 9, 9), off.getARGB(0, 2));
+
+    OffHeapRaster copy = off.copy();
+    copy.setARGB(1, 2, 0);
+    assertEquals(Raster.pack(5, 6, 7, 8), off.getARGB(1, 2));
+
+    off.close();
+    assertTrue(off.isClosed());
+    try {
+      off.getARGB(0, 0);
+      fail("Read a closed raster.");
+    } catch (IllegalStateException ignored) {
+    }
+    off.close();
+    assertEquals(0, copy.getARGB(1, 2));
+  }
+
+  @Test
+  public void testMapped() throws IOException {
+    try (TileStore store = new TileStore(2)) {
+      MappedRaster mapped = store.create(100, 150, Raster.TRANSPARENT);
+      assertEquals(0, store.getTileCount());
+      assertTrue(mapped.isClear(50, 0, 150));
+      // a run across three tiles, more than the store keeps mapped
+      int[] row = new int[140];
+      for (int j = 0; j < 140; j++) {
+        row[j] = Raster.pack(j, 0, 0, 255);
+      }
+      mapped.setRow(10, 5, 140, row, 0);
+      mapped.setARGB(70, 130, Raster.pack(1, 2, 3, 4));
+      assertEquals(4, store.getTileCount());
+      assertEquals(2, store.getResidentCount());
+      int[] back = new int[150];
+      mapped.getRow(10, 0, 150, back, 0);
+      assertEquals(Raster.TRANSPARENT, back[4]);
+      assertEquals(Raster.pack(0, 0, 0, 255), back[5]);
+      assertEquals(Raster.pack(139, 0, 0, 255), back[144]);
+      assertEquals(Raster.TRANSPARENT, back[145]);
+      assertEquals(Raster.pack(1, 2, 3, 4), mapped.getARGB(70, 130));
+      assertFalse(mapped.isClear(70, 0, 150));
+      assertTrue(mapped.isClear(70, 0, 130));
+
+      MappedRaster copy = mapped.copy();
+      assertEquals(8, store.getTileCount());
+      copy.setARGB(70, 130, 0);
+      assertEquals(Raster.pack(1, 2, 3, 4), mapped.getARGB(70, 130));
+
+      // the tiles of a closed raster are reused, starting from the fill value
+      copy.close();
+      assertEquals(4, store.getTileCount());
+      MappedRaster filled = store.create(64, 64, Raster.pack(9, 9, 9, 9));
+      filled.setARGB(0, 0, 0);
+      assertEquals(Raster.pack(9, 9, 9, 9), filled.getARGB(63, 63));
+      try {
+        copy.getARGB(0, 0);
+        fail("Read a closed raster.");
+      } catch (IllegalStateException ignored) {
+      }
+    }
+  }
+
+  @Test
+  public void testMappedThreads() throws Exception {
+    try (TileStore store = new TileStore(3)) {
+      MappedRaster mapped = store.create(256, 200, Raster.TRANSPARENT);
+      // every thread writes and reads back its own rows, through far fewer mapped tiles
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<Boolean>> done = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+          int first = t;
+          done.add(pool.submit(() -> {
+            int[] row = new int[200];
+            int[] back = new int[200];
+            for (int pass = 0; pass < 3; pass++) {
+              for (int i = first; i < 256; i += 4) {
+                Arrays.fill(row, Raster.pack(i, first, pass, 255));
+                mapped.setRow(i, 0, 200, row, 0);
+              }
+              for (int i = first; i < 256; i += 4) {
+                mapped.getRow(i, 0, 200, back, 0);
+                if (back[0] != Raster.pack(i, first, pass, 255) || back[199] != back[0]) {
+                  return false;
+                }
+              }
+            }
+            return true;
+          }));
+        }
+        for (Future<Boolean> f : done) {
+          assertTrue(f.get());
+        }
+      } finally {
+        pool.shutdown();
+      }
+      assertTrue(store.getResidentCount() <= 3);
+      assertEquals(16, store.getTileCount());
+      assertEquals(Raster.pack(255, 3, 2, 255), mapped.getARGB(255, 130));
+    }
+  }
+}
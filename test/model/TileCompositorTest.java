@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A TileCompositorTest where we
+ * test the TileCompositor class and the way it places one pixel over another.
+ * The TileCompositor class allows to
+ * <li> compose regions of a stack of layers into their composites </li>
+ * <li> place one pixel over another using its alpha value </li>
+ */
+public class TileCompositorTest {
+
+  /**
+   * Places a pixel over another with the double arithmetic the compositor used to use.
+   */
+  private static int overWithDoubles(int below, int argb) {
+    int a = Raster.alpha(argb);
+    if (a == 255) {
+      return argb;
+    } else if (a == 0) {
+      return below;
+    }
+    double com = Raster.alpha(below) / 255.0 * (1 - (a / 255.0));
+    double fA = a / 255.0 + com;
+    int fR = (int) Math.ceil(((a / 255.0 * Raster.red(argb) + Raster.red(below) * com)
+            * (1.0 / fA)));
+    int fG = (int) Math.ceil(((a / 255.0 * Raster.green(argb) + Raster.green(below) * com)
+            * (1.0 / fA)));
+    int fB = (int) Math.ceil(((a / 255.0 * Raster.blue(argb) + Raster.blue(below) * com)
+            * (1.0 / fA)));
+    fA *= 255;
+    return Raster.pack(Math.min(fR, 255), Math.min(fG, 255), Math.min(fB, 255),
+            Math.min((int) (Math.ceil(fA)), 255));
+  }
+
+  @Test
+  public void overOpaqueAndClear() {
+    int below = Raster.pack(10, 20, 30, 200);
+    assertEquals(Raster.pack(1, 2, 3, 255), TileCompositor.over(below, Raster.pack(1, 2, 3, 255)));
+    assertEquals(below, TileCompositor.over(below, Raster.pack(1, 2, 3, 0)));
+  }
+
+  @Test
+  public void overMatchesDoubles() {
+    Random rand = new Random(11);
+    for (int i = 0; i < 1000000; i++) {
+      int below = rand.nextInt();
+      int argb = rand.nextInt();
+      assertEquals(overWithDoubles(below, argb), TileCompositor.over(below, argb));
+    }
+    // whole-number results, where the doubles can round either way
+    for (int a = 1; a < 255; a++) {
+      for (int ab = 0; ab < 256; ab += 15) {
+        for (int c = 0; c < 256; c += 17) {
+          int below = Raster.pack(c, 255 - c, 0, ab);
+          int argb = Raster.pack(c, 255 - c, 255, a);
+          assertEquals(overWithDoubles(below, argb), TileCompositor.over(below, argb));
+        }
+      }
+    }
+  }
+}
@@ -1,837 +1,1023 @@
-package model.filters;
-
-import org.junit.Before;
-import org.junit.Test;
-
-import java.io.FileNotFoundException;
-import java.io.IOException;
-
-import model.IModel;
-import model.Model;
-import utils.ImageUtil;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
-
-/**
- * A FilterTest where we
- * test the filter class and all of its methods and filterOptions.
- * FilterOptions options consist of
- * The Filter package allows to
- * <li> extract the red, blue, and green components separately of the given image </li>
- * <li> brighten the given image by value, intensity, or luma </li>
- * <li> darken the given image by value, intensity, or luma </li>
- */
-public class FilterTest {
-
-  IModel model;
-
-  @Before
-  public void init() {
-    model = new Model();
-
-  }
-
-  //uses our actual model to save the image of parrot.ppm into a new file called parrot.ppm
-  //  @Test
-  //  public void saveImage() {
-  //    Readable in = new StringReader("new-project proj1 472 314 " +
-  //            "add-layer Layer1 " + "add-image-to-layer Layer1 res\\parrot.ppm 0 0 "
-  //            + "save-image parrot.ppm ");
-  //    Appendable log = new StringBuilder();
-  //    IModel model = new Model();
-  //    IView view = new View(model, new StringBuilder());
-  //    IController controller = new Controller(model, view, in);
-  //    controller.runProgram();
-  //  }
-
-  @Test
-  public void saveImageRed() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new RedComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotRed.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageBlue() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new BlueComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotBlue.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageGreen() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new GreenComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotGreen.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageBrightenValue() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new BrightenValue());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotBV.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageBrightenIntensity() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new BrightenIntensity());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotBI.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageBrightenLuma() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new BrightenLuma());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotBL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageDarkenValue() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenValue());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDV.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageDarkenIntensity() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenIntensity());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDI.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageDarkenLuma() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenLuma());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageDifference() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    model.addLayer("Layer2");
-    model.addLayer("Layer3");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenLuma());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer2",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer2", new BrightenIntensity());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer3",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer3", new Difference());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIFF.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageDarkenBlend() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    model.addLayer("Layer2");
-    model.addLayer("Layer3");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenLuma());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer2",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer2", new BrightenIntensity());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer3",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer3", new DarkenBlend());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDB.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageBrightenBlend() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    model.addLayer("Layer2");
-    model.addLayer("Layer3");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new DarkenLuma());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer2",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer2", new BrightenIntensity());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-
-    try {
-      model.addImageToLayer("Layer3",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer3", new BrightenBlend());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotBB.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImagePPMRed() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new RedComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotPPMRed.ppm");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImagePNGRed() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new RedComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotPNGRed.png");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  @Test
-  public void saveImageJPGRed() {
-    model.newProject("proj1", 472, 314);
-    model.addLayer("Layer1");
-    try {
-      model.addImageToLayer("Layer1",
-              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
-              0,
-              0);
-    } catch (FileNotFoundException e) {
-      fail("The inputted file was invalid.");
-    }
-    model.setFilter("Layer1", new RedComponent());
-    try {
-      ImageUtil.saveImg(model.saveImage(), "res\\parrotJPGRed.jpg");
-    } catch (IOException e) {
-      fail("The inputted file was invalid.");
-    }
-    assertEquals("proj1", model.getCurProject().getName());
-  }
-
-  //  @Test
-  //  public void saveImageBrightenValueRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenValue());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVR.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenValueGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenValue());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenValueBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenValue());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenIntensityRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenIntensity());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIR.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenIntensityGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenIntensity());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenIntensityBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenIntensity());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenLumaRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenLuma());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLR.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenLumaGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenLuma());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageBrightenLumaBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new BrightenLuma());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenValueRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenValue());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVR.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenValueGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenValue());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenValueBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenValue());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenIntensityRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenIntensity());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIR.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenIntensityGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenIntensity());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenIntensityBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenIntensity());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenLumaRed() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenLuma());
-  //    model.setFilter("Layer2", new RedComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotD:R.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenLumaGreen() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenLuma());
-  //    model.setFilter("Layer2", new GreenComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDLG.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-  //
-  //  @Test
-  //  public void saveImageDarkenLumaBlue() {
-  //    model.newProject("proj1", 472, 314);
-  //    model.addLayer("Layer1");
-  //    model.addLayer("Layer2");
-  //    try {
-  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
-  //    } catch (FileNotFoundException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    model.setFilter("Layer1", new DarkenLuma());
-  //    model.setFilter("Layer2", new BlueComponent());
-  //    try {
-  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDLB.ppm");
-  //    } catch (IOException e) {
-  //      fail("The inputted file was invalid.");
-  //    }
-  //    assertEquals("proj1", model.getCurProject().getName());
-  //  }
-}
-
+package model.filters;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import model.IModel;
+import model.IPixel;
+import model.IRaster;
+import model.Model;
+import model.Pixel;
+import model.Raster;
+import utils.ImageUtil;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A FilterTest where we
+ * test the filter class and all of its methods and filterOptions.
+ * FilterOptions options consist of
+ * The Filter package allows to
+ * <li> extract the red, blue, and green components separately of the given image </li>
+ * <li> brighten the given image by value, intensity, or luma </li>
+ * <li> darken the given image by value, intensity, or luma </li>
+ */
+public class FilterTest {
+
+  IModel model;
+
+  @Before
+  public void init() {
+    model = new Model();
+
+  }
+
+  //uses our actual model to save the image of parrot.ppm into a new file called parrot.ppm
+  //  @Test
+  //  public void saveImage() {
+  //    Readable in = new StringReader("new-project proj1 472 314 " +
+  //            "add-layer Layer1 " + "add-image-to-layer Layer1 res\\parrot.ppm 0 0 "
+  //            + "save-image parrot.ppm ");
+  //    Appendable log = new StringBuilder();
+  //    IModel model = new Model();
+  //    IView view = new View(model, new StringBuilder());
+  //    IController controller = new Controller(model, view, in);
+  //    controller.runProgram();
+  //  }
+
+  @Test
+  public void saveImageRed() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new RedComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotRed.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageBlue() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new BlueComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotBlue.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageGreen() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new GreenComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotGreen.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageBrightenValue() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new BrightenValue());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotBV.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageBrightenIntensity() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new BrightenIntensity());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotBI.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageBrightenLuma() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new BrightenLuma());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotBL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageDarkenValue() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenValue());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDV.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageDarkenIntensity() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenIntensity());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDI.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageDarkenLuma() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenLuma());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageDifference() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    model.addLayer("Layer2");
+    model.addLayer("Layer3");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenLuma());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer2",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer2", new BrightenIntensity());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer3",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer3", new Difference());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIFF.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageDarkenBlend() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    model.addLayer("Layer2");
+    model.addLayer("Layer3");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenLuma());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer2",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer2", new BrightenIntensity());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer3",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer3", new DarkenBlend());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDB.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageBrightenBlend() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    model.addLayer("Layer2");
+    model.addLayer("Layer3");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new DarkenLuma());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer2",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer2", new BrightenIntensity());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotDL.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+
+    try {
+      model.addImageToLayer("Layer3",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer3", new BrightenBlend());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotBB.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImagePPMRed() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new RedComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotPPMRed.ppm");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImagePNGRed() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new RedComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotPNGRed.png");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  @Test
+  public void saveImageJPGRed() {
+    model.newProject("proj1", 472, 314);
+    model.addLayer("Layer1");
+    try {
+      model.addImageToLayer("Layer1",
+              model.createImageFromBuff(ImageUtil.aPPMtoImage("res\\parrot.ppm")),
+              0,
+              0);
+    } catch (FileNotFoundException e) {
+      fail("The inputted file was invalid.");
+    }
+    model.setFilter("Layer1", new RedComponent());
+    try {
+      ImageUtil.saveImg(model.saveImage(), "res\\parrotJPGRed.jpg");
+    } catch (IOException e) {
+      fail("The inputted file was invalid.");
+    }
+    assertEquals("proj1", model.getCurProject().getName());
+  }
+
+  //  @Test
+  //  public void saveImageBrightenValueRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenValue());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVR.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenValueGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenValue());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenValueBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenValue());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBVB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenIntensityRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenIntensity());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIR.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenIntensityGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenIntensity());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenIntensityBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenIntensity());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBIB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenLumaRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenLuma());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLR.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenLumaGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenLuma());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageBrightenLumaBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new BrightenLuma());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotBLB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenValueRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenValue());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVR.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenValueGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenValue());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenValueBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenValue());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDVB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenIntensityRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenIntensity());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIR.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenIntensityGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenIntensity());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenIntensityBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenIntensity());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDIB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenLumaRed() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenLuma());
+  //    model.setFilter("Layer2", new RedComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotD:R.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenLumaGreen() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenLuma());
+  //    model.setFilter("Layer2", new GreenComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDLG.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+  //
+  //  @Test
+  //  public void saveImageDarkenLumaBlue() {
+  //    model.newProject("proj1", 472, 314);
+  //    model.addLayer("Layer1");
+  //    model.addLayer("Layer2");
+  //    try {
+  //      model.addImageToLayer("Layer1", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //      model.addImageToLayer("Layer2", ImageUtil.aPPMtoImage("res\\parrot.ppm"), 0, 0);
+  //    } catch (FileNotFoundException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    model.setFilter("Layer1", new DarkenLuma());
+  //    model.setFilter("Layer2", new BlueComponent());
+  //    try {
+  //      ImageUtil.saveImg(model.saveImage(), "res\\parrotDLB.ppm");
+  //    } catch (IOException e) {
+  //      fail("The inputted file was invalid.");
+  //    }
+  //    assertEquals("proj1", model.getCurProject().getName());
+  //  }
+
+  @Test
+  public void parallelRows() {
+    Random rand = new Random(7);
+    IRaster image = new Raster(37, 23);
+    IRaster composed = new Raster(37, 23);
+    for (int i = 0; i < 37; i++) {
+      for (int j = 0; j < 23; j++) {
+        image.setARGB(i, j, rand.nextInt());
+        composed.setARGB(i, j, rand.nextInt() | 0xff000000);
+      }
+    }
+    FilterOptions[] filters = {new RedComponent(), new GreenComponent(), new BlueComponent(),
+        new BrightenValue(), new BrightenIntensity(), new BrightenLuma(), new DarkenValue(),
+        new DarkenIntensity(), new DarkenLuma(), new Difference(), new BrightenBlend(),
+        new DarkenBlend(), new Normal()};
+    ForkJoinPool pool = new ForkJoinPool(4);
+    assertTrue(FilterExecution.isParallel());
+    assertEquals(FilterExecution.DEFAULT_THRESHOLD, FilterExecution.getThreshold());
+    try {
+      for (FilterOptions filter : filters) {
+        FilterExecution.setParallel(false);
+        IRaster expected = filter.apply(image, composed);
+        // split into bands on four threads, even though the raster is small
+        FilterExecution.setParallel(true);
+        FilterExecution.setThreshold(0);
+        FilterExecution.setPool(pool);
+        IRaster actual = filter.apply(image, composed);
+        IRaster pixels = Raster.fromPixels(filter.apply(image.toPixels(), composed.toPixels()));
+        for (int i = 0; i < 37; i++) {
+          for (int j = 0; j < 23; j++) {
+            assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+            assertEquals(pixels.getARGB(i, j), actual.getARGB(i, j));
+          }
+        }
+      }
+    } finally {
+      FilterExecution.setParallel(true);
+      FilterExecution.setThreshold(FilterExecution.DEFAULT_THRESHOLD);
+      FilterExecution.setPool(ForkJoinPool.commonPool());
+      pool.shutdown();
+    }
+    try {
+      FilterExecution.setThreshold(-1);
+      fail("Should throw IllegalArgumentException because the threshold is negative.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void filterPixel() {
+    PixelFilter[] filters = {new RedComponent(), new BrightenLuma(), new DarkenValue(),
+        new Difference(), new BrightenBlend(), new Normal()};
+    IRaster image = new Raster(1, 1, Raster.pack(100, 150, 200, 50));
+    IRaster composed = new Raster(1, 1, Raster.pack(20, 40, 60, 255));
+    for (PixelFilter filter : filters) {
+      // a per-pixel filter gives the same pixel on its own as inside a whole raster
+      assertEquals(filter.apply(image, composed).getARGB(0, 0),
+              filter.filterPixel(image.getARGB(0, 0), composed.getARGB(0, 0)));
+    }
+    assertEquals(Raster.pack(100, 0, 0, 50),
+            new RedComponent().filterPixel(Raster.pack(100, 150, 200, 50), 0));
+    assertEquals(Raster.pack(80, 110, 140, 50), new Difference().filterPixel(
+            Raster.pack(100, 150, 200, 50), Raster.pack(20, 40, 60, 255)));
+  }
+
+  @Test
+  public void toneTablesMatchPixel() {
+    for (int r = 0; r <= 255; r += 5) {
+      for (int g = 0; g <= 255; g += 3) {
+        for (int b = 0; b <= 255; b += 7) {
+          IPixel p = new Pixel(r, g, b, 77);
+          int argb = Raster.pack(r, g, b, 77);
+          assertEquals(p.lumaValue(), ToneTables.luma(argb));
+          assertEquals(p.intensityValue(), ToneTables.intensity(argb));
+          assertEquals(p.maxRGB(), ToneTables.value(argb));
+          IPixel bright = p.brighten(p.lumaValue());
+          assertEquals(Raster.pack(bright.getR(), bright.getG(), bright.getB(), 77),
+                  ToneTables.brighten(argb, p.lumaValue()));
+          IPixel dark = p.darken(p.intensityValue());
+          assertEquals(Raster.pack(dark.getR(), dark.getG(), dark.getB(), 77),
+                  ToneTables.darken(argb, p.intensityValue()));
+          assertEquals(ToneTables.brighten(argb, p.lumaValue()),
+                  ToneTables.add(argb, p.lumaValue()));
+          assertEquals(ToneTables.darken(argb, p.intensityValue()),
+                  ToneTables.subtract(argb, p.intensityValue()));
+        }
+      }
+    }
+    assertEquals(Raster.pack(255, 255, 255, 0), ToneTables.brighten(Raster.TRANSPARENT, 255));
+    assertEquals(Raster.pack(0, 0, 0, 255), ToneTables.darken(Raster.pack(0, 0, 0, 255), 255));
+  }
+
+  @Test
+  public void rowKernels() {
+    Random rand = new Random(3);
+    IRaster image = new Raster(9, 41);
+    IRaster composed = new Raster(9, 41);
+    for (int i = 0; i < 9; i++) {
+      for (int j = 0; j < 41; j++) {
+        image.setARGB(i, j, rand.nextInt());
+        composed.setARGB(i, j, rand.nextInt());
+      }
+    }
+    FilterOptions[] filters = {new RedComponent(), new GreenComponent(), new BlueComponent(),
+        new BrightenValue(), new BrightenIntensity(), new BrightenLuma(), new DarkenValue(),
+        new DarkenIntensity(), new DarkenLuma(), new Difference(), new BrightenBlend(),
+        new DarkenBlend(), new Normal()};
+    assertTrue(FilterExecution.isRowKernels());
+    try {
+      for (FilterOptions filter : filters) {
+        IRaster rows = filter.apply(image, composed);
+        FilterExecution.setRowKernels(false);
+        IRaster pixels = filter.apply(image, composed);
+        FilterExecution.setRowKernels(true);
+        for (int i = 0; i < 9; i++) {
+          for (int j = 0; j < 41; j++) {
+            assertEquals(pixels.getARGB(i, j), rows.getARGB(i, j));
+          }
+        }
+      }
+    } finally {
+      FilterExecution.setRowKernels(true);
+    }
+  }
+
+  @Test
+  public void hslBlendMatchesHSLPixel() {
+    // greys, hues on either side of red where the hue wraps around, and pixels next to
+    // black and white whose components are clamped, followed by a sweep of colors
+    int[][] edges = {{0, 0, 0}, {255, 255, 255}, {128, 128, 128}, {1, 1, 1}, {255, 0, 1},
+        {255, 1, 0}, {200, 10, 180}, {255, 0, 255}, {254, 255, 255}, {1, 0, 0}, {0, 255, 254}};
+    int count = edges.length + 6 * 6 * 6;
+    int[] colors = new int[count];
+    for (int k = 0; k < edges.length; k++) {
+      colors[k] = Raster.pack(edges[k][0], edges[k][1], edges[k][2], 255);
+    }
+    for (int k = edges.length; k < count; k++) {
+      int c = k - edges.length;
+      colors[k] = Raster.pack(c / 36 * 51, c / 6 % 6 * 51, c % 6 * 51, 255);
+    }
+    IPixel[][] image = new IPixel[count][count];
+    IPixel[][] composed = new IPixel[count][count];
+    for (int i = 0; i < count; i++) {
+      for (int j = 0; j < count; j++) {
+        int alpha = (i * 7 + j) % 256;
+        image[i][j] = new Pixel(Raster.red(colors[i]), Raster.green(colors[i]),
+                Raster.blue(colors[i]), alpha);
+        composed[i][j] = new Pixel(Raster.red(colors[j]), Raster.green(colors[j]),
+                Raster.blue(colors[j]), 255);
+      }
+    }
+    for (PixelFilter filter : new PixelFilter[]{new BrightenBlend(), new DarkenBlend()}) {
+      // the old path converts every pixel to an HSLPixel and back
+      IPixel[][] expected = filter.apply(image, composed);
+      for (int i = 0; i < count; i++) {
+        for (int j = 0; j < count; j++) {
+          IPixel e = expected[i][j];
+          IPixel p = image[i][j];
+          assertEquals(Raster.pack(e.getR(), e.getG(), e.getB(), e.getA()),
+                  filter.filterPixel(Raster.pack(p.getR(), p.getG(), p.getB(), p.getA()),
+                          colors[j]));
+        }
+      }
+    }
+
+    // a grey stays grey, and the lightest and darkest lightness clamp to white and black
+    int grey = new BrightenBlend().filterPixel(Raster.pack(128, 128, 128, 9),
+            Raster.pack(60, 60, 60, 255));
+    assertEquals(Raster.red(grey), Raster.green(grey));
+    assertEquals(Raster.red(grey), Raster.blue(grey));
+    assertEquals(9, Raster.alpha(grey));
+    assertEquals(0.5, HslBlend.lightness(Raster.pack(255, 0, 1, 255)), 1e-12);
+    assertEquals(Raster.pack(255, 255, 255, 77),
+            HslBlend.withLightness(Raster.pack(200, 10, 180, 77), 1));
+    assertEquals(Raster.pack(0, 0, 0, 77),
+            HslBlend.withLightness(Raster.pack(200, 10, 180, 77), 0));
+    assertEquals(Raster.pack(255, 255, 255, 255), new BrightenBlend().filterPixel(
+            Raster.pack(254, 255, 255, 255), Raster.pack(255, 255, 255, 255)));
+  }
+}
@@ -1,325 +1,738 @@
-package utils;
-
-import org.junit.Before;
-import org.junit.Test;
-
-import java.awt.image.BufferedImage;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-
-import model.IModel;
-import model.IPixel;
-import model.IProject;
-import model.Model;
-import model.Project;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
-
-/**
- * A ImageUtilTest where we
- * test the ImageUtil class and all of its methods.
- * This class consists of different methods that allow the following
- * <li> convert an image to a ppm and return the image </li>
- * <li> save the given composed image </li>
- * <li> open a project </li>
- * <li> save a project and all of its contents </li>
- */
-public class ImageUtilTest {
-  private IProject proj1;
-  private IModel model1;
-  private IPixel[][] img;
-
-
-  @Before
-  public void init() {
-    proj1 = new Project("Project1", 384, 425);
-    model1 = new Model();
-    img = new IPixel[231][134];
-  }
-
-  @Test
-  public void readImgTestAndsaveImgTest() {
-    try {
-      //loading a project with a ppm image, jpg image, and png image already loaded onto the project
-      this.proj1 = this.model1.openProject(ImageUtil.openProject(
-              "ProjectWithPPMJPGPNGImages.collage"));
-    } catch (FileNotFoundException e) {
-      fail("Filename for project does not exist.");
-    }
-
-    try {
-      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.ppm");
-    } catch (IOException e) {
-      fail("Invalid filename.");
-    }
-
-    try {
-      img = this.model1.createImageFromBuff(ImageUtil.readImg(
-              "saveImgtest.ppm")); //Project does not exist
-    } catch (FileNotFoundException ignored) {
-      fail("Filename for image does not exist.");
-    }
-
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][7].getA());
-
-    assertEquals(175, img[6][8].getR());
-    assertEquals(181, img[6][8].getG());
-    assertEquals(153, img[6][8].getB());
-    assertEquals(255, img[6][8].getA());
-
-    assertEquals(100, img[454][101].getR());
-    assertEquals(91, img[454][101].getG());
-    assertEquals(76, img[454][101].getB());
-    assertEquals(255, img[454][101].getA());
-
-    assertEquals(0, img[232][321].getR());
-    assertEquals(42, img[232][321].getG());
-    assertEquals(91, img[232][321].getB());
-    assertEquals(255, img[232][321].getA());
-
-    assertEquals(167, img[799][599].getR());
-    assertEquals(106, img[799][599].getG());
-    assertEquals(25, img[799][599].getB());
-    assertEquals(255, img[799][599].getA());
-
-    try {
-      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.png");
-    } catch (IOException e) {
-      fail("Invalid filename.");
-    }
-
-    try {
-      img = this.model1.createImageFromBuff(ImageUtil.readImg(
-              "saveImgtest.png")); //Project does not exist
-    } catch (FileNotFoundException ignored) {
-      fail("Filename for image does not exist.");
-    }
-
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][7].getA());
-
-    assertEquals(175, img[6][8].getR());
-    assertEquals(181, img[6][8].getG());
-    assertEquals(153, img[6][8].getB());
-    assertEquals(255, img[6][8].getA());
-
-    assertEquals(100, img[454][101].getR());
-    assertEquals(91, img[454][101].getG());
-    assertEquals(76, img[454][101].getB());
-    assertEquals(255, img[454][101].getA());
-
-    assertEquals(0, img[232][321].getR());
-    assertEquals(42, img[232][321].getG());
-    assertEquals(91, img[232][321].getB());
-    assertEquals(255, img[232][321].getA());
-
-    assertEquals(167, img[799][599].getR());
-    assertEquals(106, img[799][599].getG());
-    assertEquals(25, img[799][599].getB());
-    assertEquals(255, img[799][599].getA());
-
-    try {
-      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.jpg");
-    } catch (IOException e) {
-      fail("Invalid filename.");
-    }
-
-    try {
-      img = this.model1.createImageFromBuff(ImageUtil.readImg(
-              "saveImgtest.jpg")); //Project does not exist
-    } catch (FileNotFoundException ignored) {
-      fail("Filename for image does not exist.");
-    }
-
-    assertEquals(172, img[0][0].getR());
-    assertEquals(178, img[0][0].getG());
-    assertEquals(150, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][7].getA());
-
-    assertEquals(175, img[6][8].getR());
-    assertEquals(181, img[6][8].getG());
-    assertEquals(153, img[6][8].getB());
-    assertEquals(255, img[6][8].getA());
-
-    assertEquals(107, img[454][101].getR());
-    assertEquals(85, img[454][101].getG());
-    assertEquals(71, img[454][101].getB());
-    assertEquals(255, img[454][101].getA());
-
-    assertEquals(0, img[232][321].getR());
-    assertEquals(45, img[232][321].getG());
-    assertEquals(89, img[232][321].getB());
-    assertEquals(255, img[232][321].getA());
-
-    assertEquals(160, img[799][599].getR());
-    assertEquals(102, img[799][599].getG());
-    assertEquals(20, img[799][599].getB());
-    assertEquals(255, img[799][599].getA());
-  }
-
-  @Test
-  public void aPPMtoImageAndsaveImgPPMTest() {
-    try {
-      this.proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
-    } catch (FileNotFoundException e) {
-      fail("Filename for project does not exist.");
-    }
-
-    try {
-      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.ppm");
-    } catch (IOException e) {
-      fail("Invalid filename.");
-    }
-
-    try {
-      img = this.model1.createImageFromBuff(ImageUtil.aPPMtoImage(
-              "saveImgtest.ppm")); //Project does not exist
-    } catch (FileNotFoundException ignored) {
-      fail("Filename for image does not exist.");
-    }
-
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][7].getA());
-
-    assertEquals(175, img[6][8].getR());
-    assertEquals(181, img[6][8].getG());
-    assertEquals(153, img[6][8].getB());
-    assertEquals(255, img[6][8].getA());
-
-    assertEquals(127, img[232][321].getR());
-    assertEquals(104, img[232][321].getG());
-    assertEquals(122, img[232][321].getB());
-    assertEquals(255, img[232][321].getA());
-
-    assertEquals(167, img[799][599].getR());
-    assertEquals(106, img[799][599].getG());
-    assertEquals(25, img[799][599].getB());
-    assertEquals(255, img[799][599].getA());
-
-  }
-
-  @Test
-  public void openProject() {
-    try {
-      proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
-    } catch (FileNotFoundException e) {
-      fail("Invalid filename.");
-    }
-    assertEquals("proj1", proj1.getName());
-    assertEquals(800, proj1.getHeight());
-    assertEquals(600, proj1.getWidth());
-
-    try {
-      proj1 = this.model1.openProject(ImageUtil.openProject(
-              "ourtaco.collage")); //Project does not exist
-      fail("Filename for project does not exist.");
-    } catch (FileNotFoundException ignored) {
-    }
-  }
-
-  @Test
-  public void saveProj() {
-    model1.newProject("diffproj", 400, 921);
-    try {
-      ImageUtil.saveProj("diffproj.collage", model1.getCurProject());
-    } catch (IOException e) {
-      fail("Invalid filename.");
-    }
-
-    try {
-      model1.switchProject(this.model1.openProject(ImageUtil.openProject(
-              "ourtako.collage")));
-    } catch (FileNotFoundException e) {
-      fail("Filename for project does not exist.");
-    }
-
-    proj1 = model1.getCurProject();
-    assertEquals("proj1", proj1.getName());
-    assertEquals(800, proj1.getHeight());
-    assertEquals(600, proj1.getWidth());
-
-    try {
-      model1.switchProject(this.model1.openProject(ImageUtil.openProject(
-              "diffproj.collage")));
-    } catch (FileNotFoundException e) {
-      fail("Filename for project does not exist.");
-    }
-
-    proj1 = model1.getCurProject();
-    assertEquals("diffproj", proj1.getName());
-    assertEquals(400, proj1.getHeight());
-    assertEquals(921, proj1.getWidth());
-  }
-
-  @Test
-  public void createBuffImage() {
-    try {
-      proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
-    } catch (FileNotFoundException e) {
-      fail("Filename for project does not exist.");
-    }
-    BufferedImage buff = ImageUtil.createBuffImage(proj1.saveImage());
-
-    assertEquals(800, buff.getHeight());
-    assertEquals(600, buff.getWidth());
-    assertEquals(-5393513, buff.getRGB(0, 0));
-    assertEquals(1, buff.getType());
-    assertEquals(0, buff.getMinX());
-    assertEquals(0, buff.getMinY());
-
-    IPixel[][] img = model1.createImageFromBuff(buff);
-
-    assertEquals(173, img[0][0].getR());
-    assertEquals(179, img[0][0].getG());
-    assertEquals(151, img[0][0].getB());
-    assertEquals(255, img[0][0].getA());
-
-    assertEquals(174, img[0][7].getR());
-    assertEquals(180, img[0][7].getG());
-    assertEquals(152, img[0][7].getB());
-    assertEquals(255, img[0][7].getA());
-
-    assertEquals(175, img[6][8].getR());
-    assertEquals(181, img[6][8].getG());
-    assertEquals(153, img[6][8].getB());
-    assertEquals(255, img[6][8].getA());
-
-    assertEquals(127, img[232][321].getR());
-    assertEquals(104, img[232][321].getG());
-    assertEquals(122, img[232][321].getB());
-    assertEquals(255, img[232][321].getA());
-
-    assertEquals(167, img[799][599].getR());
-    assertEquals(106, img[799][599].getG());
-    assertEquals(25, img[799][599].getB());
-    assertEquals(255, img[799][599].getA());
-  }
-}
\ No newline at end of file
+package utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import model.FileRaster;
+import model.IModel;
+import model.IPixel;
+import model.IProject;
+import model.IRaster;
+import model.Model;
+import model.Pixel;
+import model.Project;
+import model.Raster;
+import model.filters.DarkenBlend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A ImageUtilTest where we
+ * test the ImageUtil class and all of its methods.
+ * This class consists of different methods that allow the following
+ * <li> convert an image to a ppm and return the image </li>
+ * <li> save the given composed image </li>
+ * <li> open a project </li>
+ * <li> save a project and all of its contents </li>
+ */
+public class ImageUtilTest {
+  private IProject proj1;
+  private IModel model1;
+  private IPixel[][] img;
+
+
+  @Before
+  public void init() {
+    proj1 = new Project("Project1", 384, 425);
+    model1 = new Model();
+    img = new IPixel[231][134];
+  }
+
+  @Test
+  public void readImgTestAndsaveImgTest() {
+    try {
+      //loading a project with a ppm image, jpg image, and png image already loaded onto the project
+      this.proj1 = this.model1.openProject(ImageUtil.openProject(
+              "ProjectWithPPMJPGPNGImages.collage"));
+    } catch (FileNotFoundException e) {
+      fail("Filename for project does not exist.");
+    }
+
+    try {
+      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.ppm");
+    } catch (IOException e) {
+      fail("Invalid filename.");
+    }
+
+    try {
+      img = this.model1.createImageFromBuff(ImageUtil.readImg(
+              "saveImgtest.ppm")); //Project does not exist
+    } catch (FileNotFoundException ignored) {
+      fail("Filename for image does not exist.");
+    }
+
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][7].getA());
+
+    assertEquals(175, img[6][8].getR());
+    assertEquals(181, img[6][8].getG());
+    assertEquals(153, img[6][8].getB());
+    assertEquals(255, img[6][8].getA());
+
+    assertEquals(100, img[454][101].getR());
+    assertEquals(91, img[454][101].getG());
+    assertEquals(76, img[454][101].getB());
+    assertEquals(255, img[454][101].getA());
+
+    assertEquals(0, img[232][321].getR());
+    assertEquals(42, img[232][321].getG());
+    assertEquals(91, img[232][321].getB());
+    assertEquals(255, img[232][321].getA());
+
+    assertEquals(167, img[799][599].getR());
+    assertEquals(106, img[799][599].getG());
+    assertEquals(25, img[799][599].getB());
+    assertEquals(255, img[799][599].getA());
+
+    try {
+      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.png");
+    } catch (IOException e) {
+      fail("Invalid filename.");
+    }
+
+    try {
+      img = this.model1.createImageFromBuff(ImageUtil.readImg(
+              "saveImgtest.png")); //Project does not exist
+    } catch (FileNotFoundException ignored) {
+      fail("Filename for image does not exist.");
+    }
+
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][7].getA());
+
+    assertEquals(175, img[6][8].getR());
+    assertEquals(181, img[6][8].getG());
+    assertEquals(153, img[6][8].getB());
+    assertEquals(255, img[6][8].getA());
+
+    assertEquals(100, img[454][101].getR());
+    assertEquals(91, img[454][101].getG());
+    assertEquals(76, img[454][101].getB());
+    assertEquals(255, img[454][101].getA());
+
+    assertEquals(0, img[232][321].getR());
+    assertEquals(42, img[232][321].getG());
+    assertEquals(91, img[232][321].getB());
+    assertEquals(255, img[232][321].getA());
+
+    assertEquals(167, img[799][599].getR());
+    assertEquals(106, img[799][599].getG());
+    assertEquals(25, img[799][599].getB());
+    assertEquals(255, img[799][599].getA());
+
+    try {
+      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.jpg");
+    } catch (IOException e) {
+      fail("Invalid filename.");
+    }
+
+    try {
+      img = this.model1.createImageFromBuff(ImageUtil.readImg(
+              "saveImgtest.jpg")); //Project does not exist
+    } catch (FileNotFoundException ignored) {
+      fail("Filename for image does not exist.");
+    }
+
+    assertEquals(172, img[0][0].getR());
+    assertEquals(178, img[0][0].getG());
+    assertEquals(150, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][7].getA());
+
+    assertEquals(175, img[6][8].getR());
+    assertEquals(181, img[6][8].getG());
+    assertEquals(153, img[6][8].getB());
+    assertEquals(255, img[6][8].getA());
+
+    assertEquals(107, img[454][101].getR());
+    assertEquals(85, img[454][101].getG());
+    assertEquals(71, img[454][101].getB());
+    assertEquals(255, img[454][101].getA());
+
+    assertEquals(0, img[232][321].getR());
+    assertEquals(45, img[232][321].getG());
+    assertEquals(89, img[232][321].getB());
+    assertEquals(255, img[232][321].getA());
+
+    assertEquals(160, img[799][599].getR());
+    assertEquals(102, img[799][599].getG());
+    assertEquals(20, img[799][599].getB());
+    assertEquals(255, img[799][599].getA());
+  }
+
+  @Test
+  public void aPPMtoImageAndsaveImgPPMTest() {
+    try {
+      this.proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
+    } catch (FileNotFoundException e) {
+      fail("Filename for project does not exist.");
+    }
+
+    try {
+      ImageUtil.saveImg(proj1.saveImage(), "saveImgtest.ppm");
+    } catch (IOException e) {
+      fail("Invalid filename.");
+    }
+
+    try {
+      img = this.model1.createImageFromBuff(ImageUtil.aPPMtoImage(
+              "saveImgtest.ppm")); //Project does not exist
+    } catch (FileNotFoundException ignored) {
+      fail("Filename for image does not exist.");
+    }
+
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][7].getA());
+
+    assertEquals(175, img[6][8].getR());
+    assertEquals(181, img[6][8].getG());
+    assertEquals(153, img[6][8].getB());
+    assertEquals(255, img[6][8].getA());
+
+    assertEquals(127, img[232][321].getR());
+    assertEquals(104, img[232][321].getG());
+    assertEquals(122, img[232][321].getB());
+    assertEquals(255, img[232][321].getA());
+
+    assertEquals(167, img[799][599].getR());
+    assertEquals(106, img[799][599].getG());
+    assertEquals(25, img[799][599].getB());
+    assertEquals(255, img[799][599].getA());
+
+  }
+
+  @Test
+  public void saveImgInBands() throws IOException {
+    IProject proj = new Project("bands", 300, 70);
+    proj.addLayer("Layer1");
+    proj.addImageToLayer("Layer1", new Raster(300, 70, Raster.pack(10, 200, 30, 255)), 0, 0);
+    proj.addLayer("Layer2");
+    proj.addImageToLayer("Layer2", new Raster(150, 40, Raster.pack(250, 20, 90, 100)), 20, 120);
+    proj.setFilter("Layer2", new DarkenBlend());
+    // the model saves its current project itself rather than a copy of it
+    model1.switchProject(proj);
+    for (String extension : new String[]{"ppm", "png"}) {
+      File whole = File.createTempFile("whole", "." + extension);
+      File bands = File.createTempFile("bands", "." + extension);
+      File fromModel = File.createTempFile("model", "." + extension);
+      whole.deleteOnExit();
+      bands.deleteOnExit();
+      fromModel.deleteOnExit();
+      ImageUtil.saveImg(proj.saveImage(), whole.getPath());
+      ImageUtil.saveImg(proj, bands.getPath());
+      ImageUtil.saveImg(model1, fromModel.getPath());
+      BufferedImage expected = ImageUtil.readImg(whole.getPath());
+      BufferedImage actual = ImageUtil.readImg(bands.getPath());
+      BufferedImage saved = ImageUtil.readImg(fromModel.getPath());
+      for (int i = 0; i < 300; i++) {
+        for (int j = 0; j < 70; j++) {
+          assertEquals(expected.getRGB(j, i), actual.getRGB(j, i));
+          assertEquals(expected.getRGB(j, i), saved.getRGB(j, i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void saveProjBinary() throws IOException {
+    IProject proj = new Project("chunks", 120, 90);
+    proj.addLayer("Layer1");
+    proj.addImageToLayer("Layer1", new Raster(120, 90, Raster.pack(10, 200, 30, 255)), 0, 0);
+    proj.addLayer("Layer2");
+    proj.addImageToLayer("Layer2", new Raster(33, 41, Raster.pack(250, 20, 90, 100)), 20, 61);
+    proj.setFilter("Layer2", new DarkenBlend());
+    proj.addLayer("empty");
+    IRaster expected = proj.saveRaster();
+    File text = File.createTempFile("text", ".collage");
+    text.deleteOnExit();
+    ImageUtil.saveProj(text.getPath(), proj);
+    for (boolean compress : new boolean[]{false, true}) {
+      File binary = File.createTempFile("binary", ".collage");
+      binary.deleteOnExit();
+      ImageUtil.saveProj(binary.getPath(), proj, true, compress);
+      assertTrue(binary.length() < text.length());
+      for (File file : new File[]{text, binary}) {
+        IProject opened = ImageUtil.loadProj(file.getPath(), model1);
+        assertEquals("chunks", opened.getName());
+        assertEquals(120, opened.getHeight());
+        assertEquals(90, opened.getWidth());
+        assertEquals(proj.getLayerNames(), opened.getLayerNames());
+        assertEquals("darken-blend", opened.getLayers().get(1).getFilter().toString());
+        assertEquals(new Rectangle(20, 61, 41, 33), opened.getLayers().get(1).getBounds());
+        IRaster actual = opened.saveRaster();
+        for (int i = 0; i < 120; i++) {
+          for (int j = 0; j < 90; j++) {
+            assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+          }
+        }
+      }
+
+      // a file cut short is reported instead of read as a smaller project
+      byte[] bytes = Files.readAllBytes(binary.toPath());
+      Files.write(binary.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+      try {
+        ImageUtil.loadProj(binary.getPath(), model1);
+        fail("Read a project file which was cut short.");
+      } catch (IllegalArgumentException ignored) {
+      }
+    }
+  }
+
+  @Test
+  public void loadProjText() throws IOException {
+    File file = File.createTempFile("text", ".collage");
+    file.deleteOnExit();
+    // a comment, line ends of both kinds, a layer saved before bounds, and an empty layer
+    // which is not the last one
+    Files.write(file.toPath(), ("# saved by hand\r\nhand\n2 3\r\n255\n"
+            + "old red-component 1 2 3 4 5 6 7 8\n9 10 11 12 13 14 15 16\n"
+            + "# comment between layers\n17 18 19 20 21 22 23 24\n"
+            + "empty normal bounds 0 0 0 0 top difference bounds 1 2 1 1\n"
+            + "200 100 50 255\n").getBytes());
+    IProject opened = ImageUtil.loadProj(file.getPath(), model1);
+    assertEquals("hand", opened.getName());
+    assertEquals(3, opened.getHeight());
+    assertEquals(2, opened.getWidth());
+    assertEquals(List.of("old", "empty", "top"), opened.getLayerNames());
+    assertEquals("red-component", opened.getLayers().get(0).getFilter().toString());
+    assertEquals("difference", opened.getLayers().get(2).getFilter().toString());
+    IRaster old = opened.getLayers().get(0).getRaster();
+    assertEquals(Raster.pack(1, 2, 3, 4), old.getARGB(0, 0));
+    assertEquals(Raster.pack(13, 14, 15, 16), old.getARGB(1, 1));
+    assertEquals(Raster.pack(21, 22, 23, 24), old.getARGB(2, 1));
+    assertTrue(opened.getLayers().get(1).getBounds().isEmpty());
+    assertEquals(new Rectangle(1, 2, 1, 1), opened.getLayers().get(2).getBounds());
+    assertEquals(Raster.pack(200, 100, 50, 255),
+            opened.getLayers().get(2).getRaster().getARGB(2, 1));
+
+    // the file is read the same as by the Scanner of the model
+    IProject scanned = model1.openProject(ImageUtil.openProject("ourtako.collage"));
+    IProject streamed = ImageUtil.loadProj("ourtako.collage", model1);
+    assertEquals(scanned.getLayerNames(), streamed.getLayerNames());
+    IRaster expected = scanned.saveRaster();
+    IRaster actual = streamed.saveRaster();
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+
+    Files.write(file.toPath(), "hand 2 3 255 old normal 1 2 3".getBytes());
+    try {
+      ImageUtil.loadProj(file.getPath(), model1);
+      fail("Read a project file which was cut short.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void chunkPipeline() throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<Callable<Integer>> tasks = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        int value = i;
+        tasks.add(() -> {
+          // the later chunks finish first, but are still handed on in order
+          Thread.sleep((50 - value) % 7);
+          return value * value;
+        });
+      }
+      List<Integer> results = new ArrayList<>();
+      ChunkPipeline.run(pool, tasks, (i, result) -> {
+        assertEquals(results.size(), i);
+        results.add(result);
+      });
+      for (int i = 0; i < 50; i++) {
+        assertEquals(i * i, (int) results.get(i));
+      }
+
+      tasks.set(20, () -> {
+        throw new IOException("chunk 20");
+      });
+      try {
+        ChunkPipeline.run(pool, tasks, (i, result) -> assertTrue(i < 20));
+        fail("Passed over a chunk which failed.");
+      } catch (IOException e) {
+        assertEquals("chunk 20", e.getMessage());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void saveProjParallel() throws IOException {
+    // a layer of more pixels than one band of a chunk, and many small layers
+    IProject proj = new Project("many", 1030, 1024);
+    proj.addLayer("big");
+    IRaster big = new Raster(1030, 1024);
+    for (int i = 0; i < 1030; i++) {
+      for (int j = 0; j < 1024; j++) {
+        big.setARGB(i, j, Raster.pack(i & 0xff, j & 0xff, (i + j) & 0xff, 255));
+      }
+    }
+    proj.addImageToLayer("big", big, 0, 0);
+    for (int k = 0; k < 12; k++) {
+      proj.addLayer("small" + k);
+      if (k % 4 != 3) {
+        proj.addImageToLayer("small" + k, new Raster(10 + k, 20, Raster.pack(k * 20, 5, 9,
+                100 + k)), k * 50, k * 30);
+      }
+    }
+    proj.setFilter("small5", new DarkenBlend());
+    IRaster expected = proj.saveRaster();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int format = 0; format < 3; format++) {
+        File file = File.createTempFile("many", ".collage");
+        file.deleteOnExit();
+        ImageUtil.saveProj(file.getPath(), proj, format > 0, format > 1);
+        IProject opened;
+        if (format == 0) {
+          opened = ImageUtil.loadProj(file.getPath(), model1);
+        } else {
+          try (FileChannel channel = new FileInputStream(file).getChannel()) {
+            opened = ProjectDecoder.readProject(channel, file.toPath(), model1, false, pool);
+          }
+        }
+        assertEquals(proj.getLayerNames(), opened.getLayerNames());
+        assertEquals("darken-blend", opened.getLayers().get(6).getFilter().toString());
+        for (int k = 0; k < proj.getLayers().size(); k++) {
+          assertEquals(proj.getLayers().get(k).getBounds(), opened.getLayers().get(k).getBounds());
+        }
+        IRaster actual = opened.saveRaster();
+        for (int i = 0; i < 1030; i++) {
+          for (int j = 0; j < 1024; j++) {
+            assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+          }
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void loadProjLazy() throws IOException {
+    IProject proj = new Project("lazy", 120, 90);
+    proj.addLayer("Layer1");
+    proj.addImageToLayer("Layer1", new Raster(120, 90, Raster.pack(10, 200, 30, 255)), 0, 0);
+    proj.addLayer("Layer2");
+    proj.addImageToLayer("Layer2", new Raster(33, 41, Raster.pack(250, 20, 90, 100)), 20, 61);
+    proj.setFilter("Layer2", new DarkenBlend());
+    proj.addLayer("empty");
+    IRaster expected = proj.saveRaster();
+    File file = File.createTempFile("lazy", ".collage");
+    file.deleteOnExit();
+    ImageUtil.saveProj(file.getPath(), proj, true);
+    IProject opened = ImageUtil.loadProj(file.getPath(), model1, true);
+    assertEquals(proj.getLayerNames(), opened.getLayerNames());
+    assertEquals("darken-blend", opened.getLayers().get(1).getFilter().toString());
+    // the pixels of the layers are left in the file with the bounds they were saved with
+    assertTrue(opened.getLayers().get(1).getRaster() instanceof FileRaster);
+    assertEquals(new Rectangle(20, 61, 41, 33), opened.getLayers().get(1).getBounds());
+    assertTrue(opened.getLayers().get(2).getBounds().isEmpty());
+    IRaster actual = opened.saveRaster();
+    for (int i = 0; i < 120; i++) {
+      for (int j = 0; j < 90; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+      }
+    }
+
+    // an edit copies the layer out of the file, which can then be saved over
+    opened.addImageToLayer("Layer2", new Raster(2, 2, Raster.pack(1, 2, 3, 255)), 0, 0);
+    assertEquals(new Rectangle(0, 0, 61, 94), opened.getLayers().get(1).getBounds());
+    assertEquals(Raster.pack(250, 20, 90, 100),
+            opened.getLayers().get(1).getRaster().getARGB(61, 20));
+    ImageUtil.saveProj(file.getPath(), opened, true);
+    assertEquals(Raster.pack(10, 200, 30, 255),
+            opened.getLayers().get(0).getRaster().getARGB(119, 89));
+    IProject reopened = ImageUtil.loadProj(file.getPath(), model1, true);
+    assertEquals(Raster.pack(1, 2, 3, 255), reopened.getLayers().get(1).getRaster().getARGB(1, 1));
+    assertEquals(Raster.pack(250, 20, 90, 100),
+            reopened.getLayers().get(1).getRaster().getARGB(93, 60));
+    assertEquals(Raster.TRANSPARENT, reopened.getLayers().get(1).getRaster().getARGB(5, 5));
+
+    // a file whose index is cut off is reported
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 4));
+    try {
+      ImageUtil.loadProj(file.getPath(), model1, true);
+      fail("Read a project file without its index.");
+    } catch (IllegalArgumentException ignored) {
+    }
+  }
+
+  @Test
+  public void saveProjOverLazy() throws IOException {
+    IProject proj = new Project("lazy", 70, 50);
+    proj.addLayer("Layer1");
+    proj.addImageToLayer("Layer1", new Raster(70, 50, Raster.pack(10, 200, 30, 255)), 0, 0);
+    proj.addLayer("Layer2");
+    proj.addImageToLayer("Layer2", new Raster(12, 9, Raster.pack(250, 20, 90, 100)), 5, 40);
+    File file = File.createTempFile("lazy", ".collage");
+    file.deleteOnExit();
+    ImageUtil.saveProj(file.getPath(), proj, true);
+    IProject opened = ImageUtil.loadProj(file.getPath(), model1, true);
+    IRaster expected = opened.saveRaster();
+    FileRaster mapped = (FileRaster) opened.getLayers().get(1).getRaster();
+    assertTrue(mapped.isMapped());
+
+    // saving over the file reads the layers mapped from it into memory first
+    ImageUtil.saveProj(file.getPath(), opened, true);
+    assertFalse(mapped.isMapped());
+    assertFalse(new File(file.getPath() + ".part").exists());
+    assertEquals(Raster.pack(250, 20, 90, 100), mapped.getARGB(45, 10));
+    IProject reopened = ImageUtil.loadProj(file.getPath(), model1, true);
+    assertEquals(opened.getLayerNames(), reopened.getLayerNames());
+    assertEquals(new Rectangle(5, 40, 9, 12), reopened.getLayers().get(1).getBounds());
+    IRaster actual = reopened.saveRaster();
+    IRaster again = opened.saveRaster();
+    for (int i = 0; i < 70; i++) {
+      for (int j = 0; j < 50; j++) {
+        assertEquals(expected.getARGB(i, j), actual.getARGB(i, j));
+        assertEquals(expected.getARGB(i, j), again.getARGB(i, j));
+      }
+    }
+
+    // a project mapped from another file leaves it mapped
+    File other = File.createTempFile("other", ".collage");
+    other.deleteOnExit();
+    ImageUtil.saveProj(other.getPath(), reopened, true);
+    assertTrue(((FileRaster) reopened.getLayers().get(1).getRaster()).isMapped());
+  }
+
+  @Test
+  public void saveImgPPMBytes() throws IOException {
+    IPixel[][] image = new IPixel[2][3];
+    image[0][0] = new Pixel(255, 128, 0, 255);
+    image[0][1] = new Pixel(255, 128, 3, 128);
+    image[0][2] = new Pixel(10, 20, 30, 0);
+    image[1][0] = new Pixel(200, 100, 51, 51);
+    image[1][1] = new Pixel(1, 2, 3, 255);
+    image[1][2] = new Pixel(255, 255, 255, 254);
+    File text = File.createTempFile("text", ".ppm");
+    File binary = File.createTempFile("binary", ".ppm");
+    text.deleteOnExit();
+    binary.deleteOnExit();
+    ImageUtil.saveImg(image, text.getPath());
+    ImageUtil.saveImg(image, binary.getPath(), true);
+
+    // every component is scaled by the alpha of its pixel
+    assertEquals("P3\n3 2\n255\n255 128 0 128 64 1 0 0 0 \n40 20 10 1 2 3 254 254 254 \n",
+            new String(Files.readAllBytes(text.toPath())));
+    byte[] bytes = Files.readAllBytes(binary.toPath());
+    byte[] header = "P6\n3 2\n255\n".getBytes();
+    assertEquals(header.length + 18, bytes.length);
+    int[] expected = {255, 128, 0, 128, 64, 1, 0, 0, 0, 40, 20, 10, 1, 2, 3, 254, 254, 254};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], bytes[header.length + i] & 0xff);
+    }
+  }
+
+  @Test
+  public void aPPMtoImageFormats() throws IOException {
+    // comments anywhere, and components scaled from a maxValue of 15
+    File text = File.createTempFile("text", ".ppm");
+    text.deleteOnExit();
+    Files.write(text.toPath(), ("P3 # plain\n# size\n2#width\n 1\n15\n"
+            + "15 0 7 # first\n0 15\t1\n").getBytes());
+    BufferedImage image = ImageUtil.aPPMtoImage(text.getPath());
+    assertEquals(2, image.getWidth());
+    assertEquals(1, image.getHeight());
+    assertEquals(0xffff0077, image.getRGB(0, 0));
+    assertEquals(0xff00ff11, image.getRGB(1, 0));
+
+    // a binary file written by saveImg reads back the same as the plain one
+    IPixel[][] pixels = new IPixel[3][2];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 2; j++) {
+        pixels[i][j] = new Pixel(i * 80, j * 200, 255 - i, 255);
+      }
+    }
+    File plain = File.createTempFile("plain", ".ppm");
+    File binary = File.createTempFile("binary", ".ppm");
+    plain.deleteOnExit();
+    binary.deleteOnExit();
+    ImageUtil.saveImg(pixels, plain.getPath());
+    ImageUtil.saveImg(pixels, binary.getPath(), true);
+    BufferedImage expected = ImageUtil.aPPMtoImage(plain.getPath());
+    BufferedImage actual = ImageUtil.aPPMtoImage(binary.getPath());
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 2; j++) {
+        assertEquals(0xff000000 | (i * 80 << 16) | (j * 200 << 8) | (255 - i),
+                actual.getRGB(j, i));
+        assertEquals(expected.getRGB(j, i), actual.getRGB(j, i));
+      }
+    }
+
+    for (String invalid : new String[]{"P5\n1 1\n255\n0 0 0", "P3\n2 1\n255\n1 2 3 4 5",
+        "P3\n1 1\n255\n1 2 256", "P3\n1 1\n255\n1 x 3"}) {
+      Files.write(text.toPath(), invalid.getBytes());
+      try {
+        ImageUtil.aPPMtoImage(text.getPath());
+        fail("Invalid ppm file.");
+      } catch (IllegalArgumentException ignored) {
+      }
+    }
+  }
+
+  @Test
+  public void openProject() {
+    try {
+      proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
+    } catch (FileNotFoundException e) {
+      fail("Invalid filename.");
+    }
+    assertEquals("proj1", proj1.getName());
+    assertEquals(800, proj1.getHeight());
+    assertEquals(600, proj1.getWidth());
+
+    try {
+      proj1 = this.model1.openProject(ImageUtil.openProject(
+              "ourtaco.collage")); //Project does not exist
+      fail("Filename for project does not exist.");
+    } catch (FileNotFoundException ignored) {
+    }
+  }
+
+  @Test
+  public void saveProj() {
+    model1.newProject("diffproj", 400, 921);
+    try {
+      ImageUtil.saveProj("diffproj.collage", model1.getCurProject());
+    } catch (IOException e) {
+      fail("Invalid filename.");
+    }
+
+    try {
+      model1.switchProject(this.model1.openProject(ImageUtil.openProject(
+              "ourtako.collage")));
+    } catch (FileNotFoundException e) {
+      fail("Filename for project does not exist.");
+    }
+
+    proj1 = model1.getCurProject();
+    assertEquals("proj1", proj1.getName());
+    assertEquals(800, proj1.getHeight());
+    assertEquals(600, proj1.getWidth());
+
+    try {
+      model1.switchProject(this.model1.openProject(ImageUtil.openProject(
+              "diffproj.collage")));
+    } catch (FileNotFoundException e) {
+      fail("Filename for project does not exist.");
+    }
+
+    proj1 = model1.getCurProject();
+    assertEquals("diffproj", proj1.getName());
+    assertEquals(400, proj1.getHeight());
+    assertEquals(921, proj1.getWidth());
+  }
+
+  @Test
+  public void createBuffImage() {
+    try {
+      proj1 = this.model1.openProject(ImageUtil.openProject("ourtako.collage"));
+    } catch (FileNotFoundException e) {
+      fail("Filename for project does not exist.");
+    }
+    BufferedImage buff = ImageUtil.createBuffImage(proj1.saveImage());
+
+    assertEquals(800, buff.getHeight());
+    assertEquals(600, buff.getWidth());
+    assertEquals(-5393513, buff.getRGB(0, 0));
+    assertEquals(1, buff.getType());
+    assertEquals(0, buff.getMinX());
+    assertEquals(0, buff.getMinY());
+
+    IPixel[][] img = model1.createImageFromBuff(buff);
+
+    assertEquals(173, img[0][0].getR());
+    assertEquals(179, img[0][0].getG());
+    assertEquals(151, img[0][0].getB());
+    assertEquals(255, img[0][0].getA());
+
+    assertEquals(174, img[0][7].getR());
+    assertEquals(180, img[0][7].getG());
+    assertEquals(152, img[0][7].getB());
+    assertEquals(255, img[0][7].getA());
+
+    assertEquals(175, img[6][8].getR());
+    assertEquals(181, img[6][8].getG());
+    assertEquals(153, img[6][8].getB());
+    assertEquals(255, img[6][8].getA());
+
+    assertEquals(127, img[232][321].getR());
+    assertEquals(104, img[232][321].getG());
+    assertEquals(122, img[232][321].getB());
+    assertEquals(255, img[232][321].getA());
+
+    assertEquals(167, img[799][599].getR());
+    assertEquals(106, img[799][599].getG());
+    assertEquals(25, img[799][599].getB());
+    assertEquals(255, img[799][599].getA());
+  }
+
+  @Test
+  public void createBuffImageValues() {
+    IPixel[][] img = new IPixel[3][4];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 4; j++) {
+        img[i][j] = new Pixel(i * 80, j * 60, i + j, 255);
+      }
+    }
+    BufferedImage buff = ImageUtil.createBuffImage(img);
+    assertEquals(BufferedImage.TYPE_INT_RGB, buff.getType());
+    assertEquals(3, buff.getHeight());
+    assertEquals(4, buff.getWidth());
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 4; j++) {
+        assertEquals(0xff000000 | (i * 80 << 16) | (j * 60 << 8) | (i + j), buff.getRGB(j, i));
+      }
+    }
+  }
+}